@@ -0,0 +1,77 @@
+package com.hro.core.cloudverifyapi.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.task.TaskExecutorBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.scheduling.concurrent.ConcurrentTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import javax.annotation.PreDestroy;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * 加解密、验签批量任务线程池
+ */
+@Configuration
+public class CryptoExecutorConfig {
+
+    public static final String CRYPTO_EXECUTOR = "cryptoExecutor";
+
+    @Value("${verify.crypto.executor.pool-size:0}")
+    private int poolSize;
+
+    @Value("${verify.crypto.executor.queue-capacity:1024}")
+    private int queueCapacity;
+
+    @Value("${" + ThreadModeConfig.MODE_PROPERTY + ":" + ThreadModeConfig.PLATFORM + "}")
+    private String threadMode;
+
+    /**
+     * 虚拟线程模式下的 Executor，不是 Spring 管理的线程池，关闭上下文时自行 shutdown
+     */
+    private ExecutorService virtualExecutor;
+
+    /**
+     * 声明了自定义 Executor 后 Spring Boot 不再自动创建 applicationTaskExecutor，这里按自动配置的方式补上，
+     * 供 @Async、MVC 异步请求(StreamingResponseBody)使用
+     */
+    @Lazy
+    @Primary
+    @Bean(name = {TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME, "taskExecutor"})
+    public ThreadPoolTaskExecutor applicationTaskExecutor(TaskExecutorBuilder builder) {
+        return builder.build();
+    }
+
+    @Bean(CRYPTO_EXECUTOR)
+    public AsyncTaskExecutor cryptoExecutor() {
+        if (ThreadModeConfig.useVirtualThreads(threadMode)) {
+            // 每个任务一个虚拟线程，不排队；并发由载体线程数(默认等于核数)约束，pool-size、queue-capacity 不生效
+            virtualExecutor = VirtualThreads.newThreadPerTaskExecutor("crypto-vt-");
+            return new ConcurrentTaskExecutor(virtualExecutor);
+        }
+        // 验签是纯 CPU 运算，默认线程数等于核数
+        int size = poolSize > 0 ? poolSize : Runtime.getRuntime().availableProcessors();
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(size);
+        executor.setMaxPoolSize(size);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("crypto-");
+        // 队列满时由调用线程自己执行，形成背压而不是丢弃
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        return executor;
+    }
+
+    @PreDestroy
+    public void shutdownVirtualExecutor() {
+        if (virtualExecutor != null) {
+            virtualExecutor.shutdown();
+        }
+    }
+}
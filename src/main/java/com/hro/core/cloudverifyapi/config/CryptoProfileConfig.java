@@ -0,0 +1,71 @@
+package com.hro.core.cloudverifyapi.config;
+
+import com.hro.core.cloudverifyapi.jwt.CryptoProfile;
+import com.hro.core.cloudverifyapi.jwt.JwtManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.cloud.context.environment.EnvironmentChangeEvent;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+
+import javax.annotation.PostConstruct;
+
+/**
+ * 启动时及 /actuator/refresh 后把 verify.crypto 配置应用到 JwtManager、RsaUtil
+ */
+@Configuration
+@Lazy(false)
+@EnableConfigurationProperties(CryptoProperties.class)
+public class CryptoProfileConfig {
+
+    private static Logger logger = LoggerFactory.getLogger(CryptoProfileConfig.class);
+
+    @Autowired
+    private CryptoProperties cryptoProperties;
+
+    @Autowired
+    private Environment environment;
+
+    /**
+     * 启动时参数非法直接失败
+     * @throws Exception
+     */
+    @PostConstruct
+    public void init() throws Exception {
+        JwtManager.applyProfile(cryptoProperties.toProfile());
+        cryptoProperties.getTokenCache().apply();
+    }
+
+    /**
+     * refresh 后重新绑定并应用；密钥参数与签发缓存参数分别校验，非法或生成密钥失败时保留各自的原参数
+     * @param event
+     */
+    @EventListener
+    public void onEnvironmentChange(EnvironmentChangeEvent event) {
+        boolean changed = event.getKeys().stream().anyMatch(key -> key.startsWith(CryptoProperties.PREFIX + "."));
+        if (!changed) {
+            return;
+        }
+        // 直接从 Environment 绑定，不依赖 ConfigurationPropertiesRebinder 与本监听器的执行顺序
+        CryptoProperties properties = Binder.get(environment)
+                .bind(CryptoProperties.PREFIX, CryptoProperties.class)
+                .orElseGet(CryptoProperties::new);
+        // 两者互不依赖，分别应用，一方失败不影响另一方
+        try {
+            CryptoProfile profile = properties.toProfile();
+            JwtManager.applyProfile(profile);
+        } catch (Exception e) {
+            logger.error("apply crypto profile error, keep current profile", e);
+        }
+        try {
+            properties.getTokenCache().apply();
+        } catch (Exception e) {
+            logger.error("apply token cache settings error, keep current settings", e);
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package com.hro.core.cloudverifyapi.config;
+
+import com.hro.core.cloudverifyapi.jwt.CryptoProfile;
+import com.hro.core.cloudverifyapi.jwt.JwtManager;
+import io.jsonwebtoken.SignatureAlgorithm;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * 加解密参数配置，前缀 verify.crypto，修改后调用 /actuator/refresh 即可生效
+ */
+@ConfigurationProperties(prefix = CryptoProperties.PREFIX)
+public class CryptoProperties {
+
+    public static final String PREFIX = "verify.crypto";
+
+    /**
+     * 密钥算法，目前只支持 RSA
+     */
+    private String keyAlgorithm = CryptoProfile.DEFAULT.getKeyAlgorithm();
+
+    /**
+     * 密钥长度，修改后会重新生成密钥对
+     */
+    private int keySize = CryptoProfile.DEFAULT.getKeySize();
+
+    /**
+     * RsaUtil 签名/验签算法
+     */
+    private String signatureAlgorithm = CryptoProfile.DEFAULT.getSignatureAlgorithm();
+
+    /**
+     * Token 签名算法，RS256/RS384/RS512
+     */
+    private SignatureAlgorithm jwtAlgorithm = CryptoProfile.DEFAULT.getJwtAlgorithm();
+
+    /**
+     * Token 默认有效期
+     */
+    private int tokenTtl = CryptoProfile.DEFAULT.getTokenTtl();
+
+    /**
+     * Token 签发缓存，只对显式调用 JwtManager.getCachedToken 的签发代码生效
+     */
+    private final TokenCache tokenCache = new TokenCache();
+
+    public String getKeyAlgorithm() {
+        return keyAlgorithm;
+    }
+
+    public void setKeyAlgorithm(String keyAlgorithm) {
+        this.keyAlgorithm = keyAlgorithm;
+    }
+
+    public int getKeySize() {
+        return keySize;
+    }
+
+    public void setKeySize(int keySize) {
+        this.keySize = keySize;
+    }
+
+    public String getSignatureAlgorithm() {
+        return signatureAlgorithm;
+    }
+
+    public void setSignatureAlgorithm(String signatureAlgorithm) {
+        this.signatureAlgorithm = signatureAlgorithm;
+    }
+
+    public SignatureAlgorithm getJwtAlgorithm() {
+        return jwtAlgorithm;
+    }
+
+    public void setJwtAlgorithm(SignatureAlgorithm jwtAlgorithm) {
+        this.jwtAlgorithm = jwtAlgorithm;
+    }
+
+    public int getTokenTtl() {
+        return tokenTtl;
+    }
+
+    public void setTokenTtl(int tokenTtl) {
+        this.tokenTtl = tokenTtl;
+    }
+
+    public TokenCache getTokenCache() {
+        return tokenCache;
+    }
+
+    /**
+     * 转换为不可变的参数快照，参数非法时抛出 IllegalArgumentException
+     * @return
+     */
+    public CryptoProfile toProfile() {
+        return new CryptoProfile(keyAlgorithm, keySize, signatureAlgorithm, jwtAlgorithm, tokenTtl);
+    }
+
+    public static class TokenCache {
+
+        /**
+         * 是否开启，默认关闭
+         */
+        private boolean enabled;
+
+        /**
+         * 最多缓存的 uid + 有效期组合数
+         */
+        private int maxSize = 10000;
+
+        /**
+         * 有效期消耗超过该比例后后台重新签名
+         */
+        private double refreshAheadRatio = 0.5;
+
+        /**
+         * 剩余有效期低于该比例后不再返回缓存的 Token
+         */
+        private double minRemainingRatio = 0.2;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getMaxSize() {
+            return maxSize;
+        }
+
+        public void setMaxSize(int maxSize) {
+            this.maxSize = maxSize;
+        }
+
+        public double getRefreshAheadRatio() {
+            return refreshAheadRatio;
+        }
+
+        public void setRefreshAheadRatio(double refreshAheadRatio) {
+            this.refreshAheadRatio = refreshAheadRatio;
+        }
+
+        public double getMinRemainingRatio() {
+            return minRemainingRatio;
+        }
+
+        public void setMinRemainingRatio(double minRemainingRatio) {
+            this.minRemainingRatio = minRemainingRatio;
+        }
+
+        /**
+         * 应用到 JwtManager，参数非法时抛出 IllegalArgumentException
+         */
+        public void apply() {
+            JwtManager.applyTokenCache(enabled, maxSize, refreshAheadRatio, minRemainingRatio);
+        }
+    }
+}
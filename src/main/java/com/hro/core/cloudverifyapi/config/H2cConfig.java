@@ -0,0 +1,101 @@
+package com.hro.core.cloudverifyapi.config;
+
+import org.apache.catalina.util.ServerInfo;
+import org.apache.coyote.UpgradeProtocol;
+import org.apache.coyote.http2.Http2Protocol;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatConnectorCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 明文 HTTP/2(h2c)，verify.http2.h2c-enabled=true 时启用
+ *
+ * 在 HTTP/1.1 端口上同时接受 h2c：客户端可直接发送 HTTP/2 连接前言(prior knowledge)，
+ * 也可通过 Upgrade: h2c 升级；不支持 HTTP/2 的调用方不受影响。网关用一个连接并发多个校验请求(stream)，
+ * 省去每个连接的握手与 HTTP/1.1 重复的请求头，客户端见 MultiplexedVerifyClient。
+ * Tomcat 默认每个连接同时执行的 stream 只有 20 个，超出的排队，这里与 stream 上限一起放开。
+ * Tomcat 9.0.46 之前的版本在并发 stream 下偶发丢失表单参数，Spring Boot 2.2.4 默认的 9.0.30 也在其中，
+ * 启用 h2c 的部署需用 mvn -Ph2c 打包(升级到 9.0.85)，否则启动时告警。
+ *
+ * 实测(JDK 17，1 核，Http2LoadTest 闭环压 POST /verify/token，客户端同进程，两次运行)：
+ * 16 并发  HTTP/1.1 207~264 次/秒、p99 142~164ms、16 个连接；h2c 484~513 次/秒、p99 86~90ms、1 个连接。
+ * 64、256 并发时两者都受单核 CPU 限制，吞吐量与 p99 的差异在两次运行的波动范围内，h2c 始终只用 1 个连接。
+ */
+@Configuration
+@ConditionalOnProperty(name = "verify.http2.h2c-enabled", havingValue = "true")
+public class H2cConfig {
+
+    private static Logger logger = LoggerFactory.getLogger(H2cConfig.class);
+
+    /**
+     * HTTP/2 表单参数丢失问题在该版本及以后未再复现
+     */
+    private static final int[] MIN_TOMCAT_VERSION = {9, 0, 46};
+
+    /**
+     * 每个连接允许客户端同时打开的 stream 数
+     */
+    @Value("${verify.http2.max-concurrent-streams:200}")
+    private int maxConcurrentStreams;
+
+    /**
+     * 每个连接同时在 Tomcat 线程池中执行的 stream 数
+     */
+    @Value("${verify.http2.max-concurrent-stream-execution:200}")
+    private int maxConcurrentStreamExecution;
+
+    @Bean
+    public TomcatConnectorCustomizer h2cConnectorCustomizer() {
+        if (!tomcatSupportsConcurrentStreams()) {
+            logger.warn("h2c on tomcat {} may drop form parameters under concurrent streams, build with -Ph2c",
+                    ServerInfo.getServerNumber());
+        }
+        return connector -> {
+            Http2Protocol http2 = null;
+            // server.http2.enabled=true 时 Spring Boot 已经添加过
+            for (UpgradeProtocol protocol : connector.findUpgradeProtocols()) {
+                if (protocol instanceof Http2Protocol) {
+                    http2 = (Http2Protocol) protocol;
+                }
+            }
+            if (http2 == null) {
+                http2 = new Http2Protocol();
+                connector.addUpgradeProtocol(http2);
+            }
+            http2.setMaxConcurrentStreams(maxConcurrentStreams);
+            http2.setMaxConcurrentStreamExecution(maxConcurrentStreamExecution);
+            logger.info("h2c enabled on port {}, max concurrent streams: {}, execution: {}",
+                    connector.getPort(), maxConcurrentStreams, maxConcurrentStreamExecution);
+        };
+    }
+
+    /**
+     * @return 当前 Tomcat 在并发 stream 下是否可靠
+     */
+    public static boolean tomcatSupportsConcurrentStreams() {
+        return !olderThan(ServerInfo.getServerNumber(), MIN_TOMCAT_VERSION);
+    }
+
+    /**
+     * @param version 如 9.0.30.0
+     */
+    static boolean olderThan(String version, int[] min) {
+        String[] parts = version.split("\\.");
+        for (int i = 0; i < min.length; i++) {
+            int part;
+            try {
+                part = i < parts.length ? Integer.parseInt(parts[i]) : 0;
+            } catch (NumberFormatException e) {
+                return false;
+            }
+            if (part != min[i]) {
+                return part < min[i];
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,82 @@
+package com.hro.core.cloudverifyapi.config;
+
+import com.hro.core.cloudverifyapi.loadbalancer.LatencyAwareRule;
+import com.hro.core.cloudverifyapi.loadbalancer.LatencyTrackingInterceptor;
+import com.hro.core.cloudverifyapi.loadbalancer.ServerLatencyTracker;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cloud.client.loadbalancer.LoadBalanced;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 按响应时间负载均衡(opt-in)，调用方需要两项配置：
+ * verify.loadbalancer.latency-aware.enabled=true      给 @LoadBalanced RestTemplate 加上耗时统计
+ * {serviceId}.ribbon.NFLoadBalancerRuleClassName=com.hro.core.cloudverifyapi.loadbalancer.LatencyAwareRule
+ * 可选：verify.loadbalancer.latency-aware.decay(ms，默认 10000)、default-rtt(ms，默认 10)，见 ServerLatencyTracker。
+ */
+@Configuration
+@ConditionalOnProperty(name = "verify.loadbalancer.latency-aware.enabled", havingValue = "true")
+public class LatencyAwareLoadBalancingConfig {
+
+    private static Logger logger = LoggerFactory.getLogger(LatencyAwareLoadBalancingConfig.class);
+
+    @Value("${verify.loadbalancer.latency-aware.decay:10000}")
+    private long decay;
+
+    @Value("${verify.loadbalancer.latency-aware.default-rtt:10}")
+    private long defaultRtt;
+
+    @Bean
+    public LatencyTrackingInterceptor latencyTrackingInterceptor() {
+        ServerLatencyTracker.getInstance().configure(decay, defaultRtt);
+        logger.info("latency aware load balancing enabled, rule: {}", LatencyAwareRule.class.getName());
+        return new LatencyTrackingInterceptor();
+    }
+
+    /**
+     * LoadBalancerInterceptor 由 Spring Cloud 在 SmartInitializingSingleton 阶段加入，这里等容器刷新完成后
+     * 再把耗时统计插到它后面，保证拿到的是已选定实例的地址
+     */
+    @Bean
+    public ApplicationListener<ContextRefreshedEvent> latencyTrackingInstaller(ApplicationContext context,
+            @LoadBalanced ObjectProvider<RestTemplate> restTemplates, LatencyTrackingInterceptor interceptor) {
+        return event -> {
+            // Ribbon 各客户端的子容器刷新事件也会传播上来
+            if (event.getApplicationContext() != context) {
+                return;
+            }
+            restTemplates.stream().forEach(restTemplate -> install(restTemplate, interceptor));
+        };
+    }
+
+    private static void install(RestTemplate restTemplate, LatencyTrackingInterceptor interceptor) {
+        List<ClientHttpRequestInterceptor> interceptors = new ArrayList<>(restTemplate.getInterceptors());
+        if (interceptors.contains(interceptor)) {
+            return;
+        }
+        int index = -1;
+        for (int i = 0; i < interceptors.size(); i++) {
+            if (interceptors.get(i).getClass().getSimpleName().endsWith("LoadBalancerInterceptor")) {
+                index = i;
+            }
+        }
+        if (index < 0) {
+            logger.warn("no load balancer interceptor on rest template, latency tracking skipped");
+            return;
+        }
+        interceptors.add(index + 1, interceptor);
+        restTemplate.setInterceptors(interceptors);
+    }
+}
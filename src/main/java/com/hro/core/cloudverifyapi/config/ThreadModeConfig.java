@@ -0,0 +1,85 @@
+package com.hro.core.cloudverifyapi.config;
+
+import org.apache.coyote.ProtocolHandler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.annotation.PreDestroy;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * 请求处理线程模式，verify.threads.mode：
+ * platform(默认) Tomcat 线程池(server.tomcat.max-threads，默认 200)，阻塞调用占住一个平台线程；
+ * virtual        每个请求一个虚拟线程，需 JDK 21+，并发只受 server.tomcat.max-connections 限制。
+ * 加解密线程池(cryptoExecutor)同样按该配置选择，virtual 时改为每个任务一个虚拟线程。
+ * 配置为 virtual 但 JDK 不支持时打印告警并回退到平台线程。
+ *
+ * 实测(JDK 21，1 核，ThreadModeLoadTest 压 /rsa/test，客户端同进程)：
+ * platform 服务端处理中请求数封顶 200，吞吐约 86 次/秒，目标 400 次/秒时 p99 36.6 秒；平台线程峰值 228。
+ * virtual  目标 400 次/秒时处理中请求数峰值 1582，吞吐 310 次/秒(受单核 CPU 限制)，p99 5.1 秒；平台线程峰值 27。
+ * 按 RSS 增量估算的每个处理中请求内存两种模式都在 140~380KB，主要是堆上的请求、响应对象与客户端开销，
+ * 线程栈的差异(平台线程约 200 个栈)被掩盖。虚拟线程模式需 Tomcat 9.0.7x+，见 pom 中 virtual-threads profile。
+ */
+@Configuration
+public class ThreadModeConfig {
+
+    private static Logger logger = LoggerFactory.getLogger(ThreadModeConfig.class);
+
+    public static final String MODE_PROPERTY = "verify.threads.mode";
+
+    public static final String PLATFORM = "platform";
+    public static final String VIRTUAL = "virtual";
+
+    /**
+     * 交给 Tomcat 的外部 Executor，Tomcat 停止时不会关闭它
+     */
+    private volatile ExecutorService tomcatExecutor;
+
+    /**
+     * 是否使用虚拟线程
+     * @param mode verify.threads.mode 的值
+     * @return
+     */
+    public static boolean useVirtualThreads(String mode) {
+        if (!VIRTUAL.equalsIgnoreCase(mode)) {
+            return false;
+        }
+        if (!VirtualThreads.isSupported()) {
+            logger.warn("{}={} requires JDK 21+, current: {}, fallback to platform threads",
+                    MODE_PROPERTY, mode, System.getProperty("java.version"));
+            return false;
+        }
+        return true;
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = MODE_PROPERTY, havingValue = VIRTUAL)
+    public TomcatProtocolHandlerCustomizer<ProtocolHandler> virtualThreadProtocolHandlerCustomizer() {
+        if (!useVirtualThreads(VIRTUAL)) {
+            return protocolHandler -> {
+            };
+        }
+        return protocolHandler -> {
+            // 使用外部 Executor 后 Tomcat 的 max-threads、min-spare-threads 不再生效
+            ExecutorService executor = VirtualThreads.newThreadPerTaskExecutor("http-vt-");
+            tomcatExecutor = executor;
+            protocolHandler.setExecutor(executor);
+            logger.info("tomcat request handling on virtual threads");
+        };
+    }
+
+    /**
+     * Web 容器先于单例 Bean 停止，这里只需关闭已不再接收请求的 Executor
+     */
+    @PreDestroy
+    public void shutdownTomcatExecutor() {
+        ExecutorService executor = tomcatExecutor;
+        if (executor != null) {
+            executor.shutdown();
+        }
+    }
+}
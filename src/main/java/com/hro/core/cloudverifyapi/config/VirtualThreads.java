@@ -0,0 +1,85 @@
+package com.hro.core.cloudverifyapi.config;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * 虚拟线程(JDK 21+)的反射入口
+ *
+ * 项目仍按 Java 8 编译(Spring 5.2 的 ASM 无法读取更高版本的 class 文件)，这里通过反射调用
+ * Thread.ofVirtual() 与 Executors.newThreadPerTaskExecutor()，运行在低版本 JDK 时 {@link #isSupported()} 返回 false。
+ */
+public final class VirtualThreads {
+
+    private static final Method OF_VIRTUAL;
+    private static final Method NAME;
+    private static final Method FACTORY;
+    private static final Method THREAD_PER_TASK_EXECUTOR;
+
+    static {
+        Method ofVirtual = null;
+        Method name = null;
+        Method factory = null;
+        Method perTask = null;
+        try {
+            ofVirtual = Thread.class.getMethod("ofVirtual");
+            Class<?> builder = Class.forName("java.lang.Thread$Builder");
+            name = builder.getMethod("name", String.class, long.class);
+            factory = builder.getMethod("factory");
+            perTask = Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class);
+        } catch (ReflectiveOperationException e) {
+            ofVirtual = null;
+        }
+        OF_VIRTUAL = ofVirtual;
+        NAME = name;
+        FACTORY = factory;
+        THREAD_PER_TASK_EXECUTOR = perTask;
+    }
+
+    private VirtualThreads() {
+    }
+
+    /**
+     * 当前 JDK 是否支持虚拟线程
+     * @return
+     */
+    public static boolean isSupported() {
+        return OF_VIRTUAL != null;
+    }
+
+    /**
+     * 创建虚拟线程的 ThreadFactory，线程名为 prefix0、prefix1 ...
+     * @param prefix
+     * @return
+     * @throws UnsupportedOperationException 当前 JDK 不支持虚拟线程
+     */
+    public static ThreadFactory threadFactory(String prefix) {
+        if (!isSupported()) {
+            throw new UnsupportedOperationException("virtual threads require JDK 21+, current: "
+                    + System.getProperty("java.version"));
+        }
+        try {
+            Object builder = NAME.invoke(OF_VIRTUAL.invoke(null), prefix, 0L);
+            return (ThreadFactory) FACTORY.invoke(builder);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("create virtual thread factory error", e);
+        }
+    }
+
+    /**
+     * 每个任务一个虚拟线程的 ExecutorService，不排队、不限并发
+     * @param prefix 线程名前缀
+     * @return
+     * @throws UnsupportedOperationException 当前 JDK 不支持虚拟线程
+     */
+    public static ExecutorService newThreadPerTaskExecutor(String prefix) {
+        ThreadFactory factory = threadFactory(prefix);
+        try {
+            return (ExecutorService) THREAD_PER_TASK_EXECUTOR.invoke(null, factory);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("create virtual thread executor error", e);
+        }
+    }
+}
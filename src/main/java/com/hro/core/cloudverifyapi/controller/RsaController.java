@@ -17,7 +17,8 @@ public class RsaController {
         try {
             Thread.sleep(2*1000l);
         } catch (InterruptedException e) {
-            e.printStackTrace();
+            Thread.currentThread().interrupt();
+            logger.warn("rsa test interrupted", e);
         }
         logger.debug("rsa test...");
         return true;
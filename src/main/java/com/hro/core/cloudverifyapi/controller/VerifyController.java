@@ -0,0 +1,81 @@
+package com.hro.core.cloudverifyapi.controller;
+
+import com.hro.core.cloudverifyapi.jwt.JwtResult;
+import com.hro.core.cloudverifyapi.response.PreEncodedResponses;
+import com.hro.core.cloudverifyapi.service.VerifyService;
+import com.hro.core.cloudverifyapi.utils.VerifyBinaryCodec;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/verify")
+public class VerifyController {
+
+    private static Logger logger = LoggerFactory.getLogger(VerifyController.class);
+
+    @Autowired
+    private VerifyService verifyService;
+
+    /**
+     * 校验Token，结果直接写出预编码的 JSON，不经过 Jackson
+     * @param token
+     * @param response
+     * @throws IOException
+     */
+    @RequestMapping(value = "/token", method = {RequestMethod.GET, RequestMethod.POST})
+    public void checkToken(@RequestParam("token") String token, HttpServletResponse response) throws IOException {
+        JwtResult result = verifyService.checkToken(token);
+        response.setContentType(PreEncodedResponses.CONTENT_TYPE);
+        PreEncodedResponses.writeJwtResult(result, response.getOutputStream());
+    }
+
+    /**
+     * 二进制协议批量校验Token，格式见 {@link VerifyBinaryCodec}；
+     * 请求体格式错误返回 400，token 数超过 verify.batch.max-size 返回 413
+     * @param body
+     * @param response
+     * @throws IOException
+     */
+    @PostMapping(value = "/binary", consumes = VerifyBinaryCodec.CONTENT_TYPE)
+    public void checkTokensBinary(@RequestBody byte[] body, HttpServletResponse response) throws IOException {
+        List<String> tokens;
+        try {
+            tokens = VerifyBinaryCodec.decodeRequest(body);
+        } catch (IllegalArgumentException e) {
+            logger.warn("bad binary verify request: {}", e.getMessage());
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST, e.getMessage());
+            return;
+        }
+        if (tokens.size() > verifyService.getMaxBatchSize()) {
+            logger.warn("binary verify batch too large: {}", tokens.size());
+            response.sendError(HttpServletResponse.SC_REQUEST_ENTITY_TOO_LARGE, "batch size " + tokens.size()
+                    + " exceeds verify.batch.max-size " + verifyService.getMaxBatchSize());
+            return;
+        }
+        List<JwtResult> results = verifyService.checkTokens(tokens);
+        response.setContentType(VerifyBinaryCodec.CONTENT_TYPE);
+        VerifyBinaryCodec.encodeResults(results, response.getOutputStream());
+    }
+
+    /**
+     * 验签公钥集合(JWKS)，客户端据此在本地校验Token，见 JwtClientVerifier
+     * @return
+     */
+    @GetMapping("/jwks")
+    public Map<String, Object> jwks() {
+        return verifyService.publicKeySet();
+    }
+}
@@ -1,7 +1,9 @@
 package com.hro.core.cloudverifyapi.enums;
 
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * 结果集状态码
@@ -19,11 +21,25 @@ public enum ResultCodeEnum {
     FAILURE("999", "系统错误");
 
     private String code;
+    private int number;
     private String desc;
     private static ResultCodeEnum[] values = values();
+    /**
+     * code -> 枚举 的预计算查找表，避免每次 getResult 线性扫描
+     */
+    private static final Map<String, ResultCodeEnum> CODE_TABLE = new HashMap<>(values.length * 2);
+    private static final Map<Integer, ResultCodeEnum> NUMBER_TABLE = new HashMap<>(values.length * 2);
+
+    static {
+        for (ResultCodeEnum codeEnum : values) {
+            CODE_TABLE.put(codeEnum.getCode(), codeEnum);
+            NUMBER_TABLE.put(codeEnum.getNumber(), codeEnum);
+        }
+    }
 
     ResultCodeEnum(String code, String desc) {
         this.code = code;
+        this.number = Integer.parseInt(code);
         this.desc = desc;
     }
 
@@ -31,19 +47,25 @@ public enum ResultCodeEnum {
         return this.code;
     }
 
+    /**
+     * 数字形式的状态码，用于二进制协议
+     */
+    public int getNumber() {
+        return this.number;
+    }
+
     public String getDesc() {
         return this.desc;
     }
 
     public static ResultCodeEnum getResult(String code) {
-        ResultCodeEnum result = UNKNOW;
-        for(ResultCodeEnum codeEnum : values) {
-            if(code.equals(codeEnum.getCode())) {
-                result = codeEnum;
-                break;
-            }
-        }
-        return result;
+        ResultCodeEnum result = CODE_TABLE.get(code);
+        return result == null ? UNKNOW : result;
+    }
+
+    public static ResultCodeEnum getResult(int number) {
+        ResultCodeEnum result = NUMBER_TABLE.get(number);
+        return result == null ? UNKNOW : result;
     }
 
     public static List<ResultCodeEnum> getResultCodes() {
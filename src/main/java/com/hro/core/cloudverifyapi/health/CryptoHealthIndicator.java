@@ -0,0 +1,238 @@
+package com.hro.core.cloudverifyapi.health;
+
+import com.hro.core.cloudverifyapi.config.CryptoExecutorConfig;
+import com.hro.core.cloudverifyapi.jwt.CryptoProfile;
+import com.hro.core.cloudverifyapi.jwt.JwtManager;
+import com.hro.core.cloudverifyapi.jwt.JwtResult;
+import com.hro.core.cloudverifyapi.utils.RsaUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.health.AbstractHealthIndicator;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.nio.charset.StandardCharsets;
+import java.security.interfaces.RSAPrivateKey;
+import java.security.interfaces.RSAPublicKey;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 加解密健康检查
+ *
+ * 后台定时执行一次 签发/验签/加密/解密/签名/验签 自检并记录耗时，health 只读取最近一次结果，不在请求线程中做 RSA 运算。
+ * 自检失败为 DOWN；自检耗时超过阈值或加解密线程池队列接近打满为 OUT_OF_SERVICE，
+ * 配合 eureka.client.healthcheck.enabled=true 让过载节点暂时退出负载。
+ */
+@Component
+@Lazy(false)
+public class CryptoHealthIndicator extends AbstractHealthIndicator {
+
+    private static Logger logger = LoggerFactory.getLogger(CryptoHealthIndicator.class);
+
+    private static final byte[] PROBE = "crypto-self-test".getBytes(StandardCharsets.UTF_8);
+
+    @Value("${verify.health.crypto.interval:10000}")
+    private long intervalMillis;
+
+    @Value("${verify.health.crypto.latency-threshold:200}")
+    private long latencyThresholdMillis;
+
+    @Value("${verify.health.crypto.queue-saturation-threshold:0.9}")
+    private double queueSaturationThreshold;
+
+    @Autowired
+    @Qualifier(CryptoExecutorConfig.CRYPTO_EXECUTOR)
+    private AsyncTaskExecutor cryptoExecutor;
+
+    private ScheduledExecutorService scheduler;
+
+    /**
+     * 自检密钥对及生成时的参数，只在自检线程中访问；参数变化(refresh 后 applyProfile)后重新生成
+     */
+    private CryptoProfile selfTestProfile;
+    private RSAPublicKey selfTestPubKey;
+    private RSAPrivateKey selfTestPriKey;
+
+    private volatile SelfTestResult lastResult;
+
+    public CryptoHealthIndicator() {
+        super("crypto health check failed");
+    }
+
+    @PostConstruct
+    public void start() {
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "crypto-self-test");
+            thread.setDaemon(true);
+            return thread;
+        });
+        // 首次自检推迟一个周期，避免与启动、预热争抢 CPU
+        scheduler.scheduleWithFixedDelay(this::selfTest, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        scheduler.shutdownNow();
+    }
+
+    @Override
+    protected void doHealthCheck(Health.Builder builder) {
+        Status status = Status.UP;
+
+        SelfTestResult result = lastResult;
+        if (result == null) {
+            status = Status.UNKNOWN;
+            builder.withDetail("selfTest", "pending");
+        } else {
+            builder.withDetail("selfTest", result.toDetails());
+            long age = System.currentTimeMillis() - result.finishedAt;
+            if (result.error != null) {
+                status = Status.DOWN;
+            } else if (result.totalMillis() > latencyThresholdMillis || age > intervalMillis * 3) {
+                // 自检线程本身排不上 CPU 时结果会过期，同样视为过载
+                status = Status.OUT_OF_SERVICE;
+            }
+        }
+
+        // 虚拟线程模式下每个任务一个线程，没有队列，只依据自检耗时判断过载
+        if (cryptoExecutor instanceof ThreadPoolTaskExecutor) {
+            ThreadPoolExecutor pool = ((ThreadPoolTaskExecutor) cryptoExecutor).getThreadPoolExecutor();
+            BlockingQueue<Runnable> queue = pool.getQueue();
+            int queued = queue.size();
+            int capacity = queued + queue.remainingCapacity();
+            double saturation = capacity == 0 ? 0 : (double) queued / capacity;
+            Map<String, Object> executor = new LinkedHashMap<>();
+            executor.put("poolSize", pool.getPoolSize());
+            executor.put("maxPoolSize", pool.getMaximumPoolSize());
+            executor.put("active", pool.getActiveCount());
+            executor.put("queued", queued);
+            executor.put("queueCapacity", capacity);
+            executor.put("queueSaturation", Math.round(saturation * 1000) / 1000.0);
+            executor.put("completed", pool.getCompletedTaskCount());
+            builder.withDetail("cryptoExecutor", executor);
+            if (status == Status.UP && saturation >= queueSaturationThreshold) {
+                status = Status.OUT_OF_SERVICE;
+            }
+        } else {
+            builder.withDetail("cryptoExecutor", "virtual-thread-per-task");
+        }
+
+        JwtManager manager = JwtManager.getInstance();
+        Map<String, Object> keyStore = new LinkedHashMap<>();
+        keyStore.put("kid", manager.getKeyId());
+        keyStore.put("algorithm", manager.getAlgorithm().getValue());
+        keyStore.put("keySize", manager.getPublicKey().getModulus().bitLength());
+        keyStore.put("verificationKeys", manager.getVerificationKeys().size());
+        builder.withDetail("keyStore", keyStore);
+
+        builder.withDetail("latencyThresholdMillis", latencyThresholdMillis);
+        builder.status(status);
+    }
+
+    private void selfTest() {
+        long[] nanos = new long[6];
+        String error = null;
+        try {
+            CryptoProfile profile = RsaUtil.getProfile();
+            if (profile.keyChanged(selfTestProfile)) {
+                Map<String, Object> keyMap = RsaUtil.initKey(profile.getKeySize());
+                selfTestPubKey = (RSAPublicKey) keyMap.get(RsaUtil.PUBLIC_KEY);
+                selfTestPriKey = (RSAPrivateKey) keyMap.get(RsaUtil.PRIVATE_KEY);
+                selfTestProfile = profile;
+                logger.info("crypto self test keys regenerated for {}", profile);
+            }
+            long t = System.nanoTime();
+            String token = JwtManager.getToken("crypto-self-test", 60);
+            nanos[0] = System.nanoTime() - t;
+
+            t = System.nanoTime();
+            JwtResult result = JwtManager.getInstance().checkToken(token);
+            nanos[1] = System.nanoTime() - t;
+            if (!result.isStatus()) {
+                throw new IllegalStateException("token check failed: " + result.getCode());
+            }
+
+            t = System.nanoTime();
+            byte[] encrypted = RsaUtil.encryptData(PROBE, selfTestPubKey);
+            nanos[2] = System.nanoTime() - t;
+
+            t = System.nanoTime();
+            byte[] decrypted = encrypted == null ? null : RsaUtil.decryptData(encrypted, selfTestPriKey);
+            nanos[3] = System.nanoTime() - t;
+            if (!Arrays.equals(PROBE, decrypted)) {
+                throw new IllegalStateException("encrypt/decrypt round trip failed");
+            }
+
+            String content = new String(PROBE, StandardCharsets.UTF_8);
+            t = System.nanoTime();
+            String sign = RsaUtil.signByPriKey(content, selfTestPriKey);
+            nanos[4] = System.nanoTime() - t;
+
+            t = System.nanoTime();
+            boolean verified = sign != null && RsaUtil.verifySignByPubKey(content, sign, selfTestPubKey);
+            nanos[5] = System.nanoTime() - t;
+            if (!verified) {
+                throw new IllegalStateException("sign/verify round trip failed");
+            }
+        } catch (Exception e) {
+            logger.error("crypto self test error", e);
+            error = e.getClass().getSimpleName() + ": " + e.getMessage();
+        }
+        lastResult = new SelfTestResult(nanos, error, System.currentTimeMillis());
+    }
+
+    /**
+     * 一次自检的结果，不可变
+     */
+    private static final class SelfTestResult {
+
+        private static final String[] OPERATIONS = {"jwtSign", "jwtVerify", "encrypt", "decrypt", "sign", "verify"};
+
+        private final long[] nanos;
+        private final String error;
+        private final long finishedAt;
+
+        SelfTestResult(long[] nanos, String error, long finishedAt) {
+            this.nanos = nanos;
+            this.error = error;
+            this.finishedAt = finishedAt;
+        }
+
+        long totalMillis() {
+            long total = 0;
+            for (long n : nanos) {
+                total += n;
+            }
+            return TimeUnit.NANOSECONDS.toMillis(total);
+        }
+
+        Map<String, Object> toDetails() {
+            Map<String, Object> details = new LinkedHashMap<>();
+            for (int i = 0; i < OPERATIONS.length; i++) {
+                details.put(OPERATIONS[i] + "Micros", TimeUnit.NANOSECONDS.toMicros(nanos[i]));
+            }
+            details.put("totalMillis", totalMillis());
+            details.put("ageMillis", System.currentTimeMillis() - finishedAt);
+            if (error != null) {
+                details.put("error", error);
+            }
+            return details;
+        }
+    }
+}
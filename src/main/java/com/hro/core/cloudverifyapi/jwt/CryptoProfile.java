@@ -0,0 +1,97 @@
+package com.hro.core.cloudverifyapi.jwt;
+
+import com.hro.core.cloudverifyapi.utils.RsaUtil;
+import io.jsonwebtoken.SignatureAlgorithm;
+
+import java.security.NoSuchAlgorithmException;
+import java.security.Signature;
+
+/**
+ * 加解密参数快照，不可变对象，整体替换以保证并发读取时各参数一致
+ */
+public final class CryptoProfile {
+
+    public static final CryptoProfile DEFAULT = new CryptoProfile(RsaUtil.KEY_ALGORITHM, 1024,
+            RsaUtil.SIGNATURE_ALGORITHM, SignatureAlgorithm.RS512, 1800);
+
+    private final String keyAlgorithm;
+    private final int keySize;
+    private final String signatureAlgorithm;
+    private final SignatureAlgorithm jwtAlgorithm;
+    private final int tokenTtl;
+
+    /**
+     * @param keyAlgorithm 密钥算法，目前只支持 RSA
+     * @param keySize 密钥长度
+     * @param signatureAlgorithm RsaUtil 签名算法
+     * @param jwtAlgorithm Token 签名算法，必须是 RSA 系列
+     * @param tokenTtl Token 默认有效期，单位与 JwtManager.getToken 的 exp 参数一致
+     */
+    public CryptoProfile(String keyAlgorithm, int keySize, String signatureAlgorithm,
+                         SignatureAlgorithm jwtAlgorithm, int tokenTtl) {
+        if (!RsaUtil.KEY_ALGORITHM.equalsIgnoreCase(keyAlgorithm)) {
+            throw new IllegalArgumentException("unsupported key algorithm: " + keyAlgorithm);
+        }
+        if (keySize < 512) {
+            throw new IllegalArgumentException("key size too small: " + keySize);
+        }
+        try {
+            Signature.getInstance(signatureAlgorithm);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalArgumentException("unsupported signature algorithm: " + signatureAlgorithm);
+        }
+        if (jwtAlgorithm == null || !jwtAlgorithm.isRsa()) {
+            throw new IllegalArgumentException("jwt algorithm must be RSA based: " + jwtAlgorithm);
+        }
+        if (tokenTtl <= 0) {
+            throw new IllegalArgumentException("token ttl must be positive: " + tokenTtl);
+        }
+        this.keyAlgorithm = keyAlgorithm.toUpperCase();
+        this.keySize = keySize;
+        this.signatureAlgorithm = signatureAlgorithm;
+        this.jwtAlgorithm = jwtAlgorithm;
+        this.tokenTtl = tokenTtl;
+    }
+
+    public String getKeyAlgorithm() {
+        return keyAlgorithm;
+    }
+
+    public int getKeySize() {
+        return keySize;
+    }
+
+    public String getSignatureAlgorithm() {
+        return signatureAlgorithm;
+    }
+
+    public SignatureAlgorithm getJwtAlgorithm() {
+        return jwtAlgorithm;
+    }
+
+    public int getTokenTtl() {
+        return tokenTtl;
+    }
+
+    /**
+     * 与另一个参数快照相比是否需要重新生成密钥对：密钥或签名算法变化时都重新生成，
+     * 每个密钥对只对应一组算法，轮换后的旧公钥按原算法验签
+     * @param other
+     * @return
+     */
+    public boolean keyChanged(CryptoProfile other) {
+        return other == null || keySize != other.keySize || !keyAlgorithm.equals(other.keyAlgorithm)
+                || jwtAlgorithm != other.jwtAlgorithm || !signatureAlgorithm.equalsIgnoreCase(other.signatureAlgorithm);
+    }
+
+    @Override
+    public String toString() {
+        return "CryptoProfile{" +
+                "keyAlgorithm='" + keyAlgorithm + '\'' +
+                ", keySize=" + keySize +
+                ", signatureAlgorithm='" + signatureAlgorithm + '\'' +
+                ", jwtAlgorithm=" + jwtAlgorithm +
+                ", tokenTtl=" + tokenTtl +
+                '}';
+    }
+}
@@ -6,41 +6,113 @@ import io.jsonwebtoken.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.security.Key;
 import java.security.interfaces.RSAPrivateKey;
 import java.security.interfaces.RSAPublicKey;
+import java.util.Collections;
 import java.util.Date;
+import java.util.LinkedHashMap;
 import java.util.Map;
 
 /**
  * Jwt工具类
+ *
+ * 签名密钥、算法、有效期等状态保存在不可变的 {@link KeyState} 中，通过 volatile 引用整体替换，
+ * 调用 {@link #applyProfile(CryptoProfile)} 切换参数时签名与验签同时生效，不会读到新旧混合的状态。
+ * 轮换下来的公钥连同其签名算法一直保留到用它签发的最后一个 Token 过期，多次轮换时同样有效：
+ * 签发时先记录过期时间，记录后 state 已变化则换用新密钥重签；刚轮换下来的公钥无条件保留一轮，
+ * 覆盖轮换读取过期时间早于记录、发布晚于复查的情况。
  */
 public class JwtManager {
 
     private static Logger logger = LoggerFactory.getLogger(JwtManager.class);
 
-    private static RSAPrivateKey priKey;
-    private static RSAPublicKey pubKey;
+    /**
+     * Token 头部中标识签名公钥的字段
+     */
+    public static final String KEY_ID = "kid";
+
+    private static volatile KeyState state;
+
+    private static final Object LOCK = new Object();
+
+    private static final TokenCache TOKEN_CACHE = new TokenCache(JwtManager::getToken, () -> {
+        getInstance();
+        return state.keyId;
+    });
 
-    private static JwtManager instance;
+    private static volatile boolean tokenCacheEnabled;
+
+    /**
+     * 仅测试使用：读取 state 之后、记录过期时间之前执行，用于构造与轮换交错的场景
+     */
+    static volatile Runnable beforeRecordExpiry;
 
     public static JwtManager getInstance() {
-        if(instance == null) {
-            instance = HolderClass.manager;
-            try {
-                Map<String, Object> keyMap = RsaUtil.initKey();
-                pubKey = (RSAPublicKey) keyMap.get(RsaUtil.PUBLIC_KEY);
-                priKey = (RSAPrivateKey) keyMap.get(RsaUtil.PRIVATE_KEY);
-            } catch (Exception e) {
-                logger.error("init rsa error...", e);
+        if (state == null) {
+            synchronized (LOCK) {
+                if (state == null) {
+                    try {
+                        applyProfile(RsaUtil.getProfile());
+                    } catch (Exception e) {
+                        logger.error("init rsa error...", e);
+                    }
+                }
             }
         }
-        return instance;
+        return HolderClass.manager;
     }
 
     private static class HolderClass {
         private static JwtManager manager = new JwtManager();
     }
 
+    /**
+     * 应用新的加解密参数，密钥或签名算法变化时重新生成密钥对；
+     * 之前的公钥继续保留用于验签，直到用它签发的 Token 全部过期
+     * @param profile
+     * @throws Exception 生成密钥失败，此时保持原状态不变
+     */
+    public static void applyProfile(CryptoProfile profile) throws Exception {
+        synchronized (LOCK) {
+            KeyState current = state;
+            KeyState next;
+            if (current == null || profile.keyChanged(current.profile)) {
+                Map<String, Object> keyMap = RsaUtil.initKey(profile.getKeySize());
+                RSAPublicKey pubKey = (RSAPublicKey) keyMap.get(RsaUtil.PUBLIC_KEY);
+                RSAPrivateKey priKey = (RSAPrivateKey) keyMap.get(RsaUtil.PRIVATE_KEY);
+                next = new KeyState(profile, priKey, pubKey, current, System.currentTimeMillis());
+                logger.info("rsa key generated, kid: {}, profile: {}", next.keyId, profile);
+            } else {
+                next = current.withProfile(profile);
+                logger.info("crypto profile applied, kid: {}, profile: {}", next.keyId, profile);
+            }
+            RsaUtil.applyProfile(profile);
+            state = next;
+            if (current != null && current.pubKey != next.pubKey) {
+                TOKEN_CACHE.invalidateAll();
+            }
+        }
+    }
+
+    /**
+     * 配置 Token 签发缓存，参数说明见 {@link TokenCache#configure(int, double, double)}
+     * @param enabled 关闭时 {@link #getCachedToken(String, int)} 每次都重新签名
+     * @param maxSize
+     * @param refreshAheadRatio
+     * @param minRemainingRatio
+     * @throws IllegalArgumentException 参数非法，此时保持原配置不变
+     */
+    public static void applyTokenCache(boolean enabled, int maxSize, double refreshAheadRatio, double minRemainingRatio) {
+        TOKEN_CACHE.configure(maxSize, refreshAheadRatio, minRemainingRatio);
+        tokenCacheEnabled = enabled;
+        if (!enabled) {
+            TOKEN_CACHE.invalidateAll();
+        }
+        logger.info("token cache enabled: {}, max size: {}, refresh ahead: {}, min remaining: {}",
+                enabled, maxSize, refreshAheadRatio, minRemainingRatio);
+    }
+
     /**
      * 获取Token
      * @param uid 用户ID
@@ -48,9 +120,88 @@ public class JwtManager {
      * @return
      */
     public static String getToken(String uid, int exp) {
+        getInstance();
         long endTime = System.currentTimeMillis() + 1000 * exp;
-        return Jwts.builder().setSubject(uid).setExpiration(new Date(endTime))
-                .signWith(SignatureAlgorithm.RS512, priKey).compact();
+        KeyState keyState;
+        do {
+            keyState = state;
+            Runnable hook = beforeRecordExpiry;
+            if (hook != null) {
+                hook.run();
+            }
+            keyState.current.recordExpiry(endTime);
+            // 记录期间发生轮换时，新状态可能读到的是记录前的过期时间，换用新密钥重新记录
+        } while (keyState != state);
+        return Jwts.builder().setHeaderParam(KEY_ID, keyState.keyId).setSubject(uid).setExpiration(new Date(endTime))
+                .signWith(keyState.profile.getJwtAlgorithm(), keyState.priKey).compact();
+    }
+
+    /**
+     * 获取Token，开启签发缓存时同一 uid、有效期在剩余有效期充足时返回已签发的Token，
+     * 适用于反复申请Token的内部服务账号；返回的Token剩余有效期可能短于 exp。
+     * 本服务只校验Token，自身没有签发接口，该方法不会被自动调用：
+     * 在同进程内为服务账号签发Token的代码需显式用它替代 {@link #getToken(String, int)} 才会生效，
+     * 面向终端用户的签发仍应使用 getToken
+     * @param uid 用户ID
+     * @param exp 失效时间，单位与 {@link #getToken(String, int)} 一致
+     * @return
+     */
+    public static String getCachedToken(String uid, int exp) {
+        if (!tokenCacheEnabled) {
+            return getToken(uid, exp);
+        }
+        return TOKEN_CACHE.get(uid, exp);
+    }
+
+    /**
+     * 按当前参数中的默认有效期获取Token
+     * @param uid 用户ID
+     * @return
+     */
+    public static String getToken(String uid) {
+        getInstance();
+        return getToken(uid, state.profile.getTokenTtl());
+    }
+
+    /**
+     * 获取当前签名算法
+     * @return
+     */
+    public SignatureAlgorithm getAlgorithm() {
+        return state.profile.getJwtAlgorithm();
+    }
+
+    /**
+     * 获取验签公钥
+     * @return
+     */
+    public RSAPublicKey getPublicKey() {
+        return state.pubKey;
+    }
+
+    /**
+     * 获取验签公钥的 kid
+     * @return
+     */
+    public String getKeyId() {
+        return state.keyId;
+    }
+
+    /**
+     * 获取所有仍可用于验签的公钥，kid -> 公钥及其算法，当前公钥在前；
+     * 已轮换且签发的 Token 均已过期的公钥不再返回
+     * @return
+     */
+    public Map<String, VerificationKey> getVerificationKeys() {
+        KeyState keyState = state;
+        long now = System.currentTimeMillis();
+        Map<String, VerificationKey> keys = new LinkedHashMap<>();
+        for (VerificationKey key : keyState.verificationKeys.values()) {
+            if (key == keyState.current || key.getLastTokenExpiresAt() > now) {
+                keys.put(key.getKeyId(), key);
+            }
+        }
+        return Collections.unmodifiableMap(keys);
     }
 
     /**
@@ -59,18 +210,85 @@ public class JwtManager {
      * @return JWTResult
      */
     public JwtResult checkToken(String token) {
+        KeyState keyState = state;
         try {
-            Claims claims = Jwts.parser().setSigningKey(pubKey).parseClaimsJws(token).getBody();
+            Claims claims = Jwts.parser().setSigningKeyResolver(keyState).parseClaimsJws(token).getBody();
             String sub = claims.get("sub", String.class);
-            return new JwtResult(true, sub, "合法请求", ResultCodeEnum.SUCCESS.getCode());
+            return new JwtResult(true, sub, JwtResult.MSG_SUCCESS, ResultCodeEnum.SUCCESS.getCode());
         } catch (ExpiredJwtException e) {
             // 在解析JWT字符串时，如果‘过期时间字段’已经早于当前时间，将会抛出ExpiredJwtException异常，说明本次请求已经失效
-            return new JwtResult(false, null, "token已过期", ResultCodeEnum.TOKEN_TIMEOUT.getCode());
+            return new JwtResult(false, null, JwtResult.MSG_TIMEOUT, ResultCodeEnum.TOKEN_TIMEOUT.getCode());
         } catch (SignatureException e) {
             // 在解析JWT字符串时，如果密钥不正确，将会解析失败，抛出SignatureException异常，说明该JWT字符串是伪造的
-            return new JwtResult(false, null, "非法请求", ResultCodeEnum.TOKEN_UNVALIDATE.getCode());
+            return new JwtResult(false, null, JwtResult.MSG_UNVALIDATE, ResultCodeEnum.TOKEN_UNVALIDATE.getCode());
         } catch (Exception e) {
-            return new JwtResult(false, null, "非法请求", ResultCodeEnum.TOKEN_UNVALIDATE.getCode());
+            return new JwtResult(false, null, JwtResult.MSG_UNVALIDATE, ResultCodeEnum.TOKEN_UNVALIDATE.getCode());
+        }
+    }
+
+    /**
+     * 签名、验签所需的全部状态，不可变
+     */
+    private static final class KeyState extends SigningKeyResolverAdapter {
+
+        private final CryptoProfile profile;
+        private final RSAPrivateKey priKey;
+        private final RSAPublicKey pubKey;
+        private final String keyId;
+        private final VerificationKey current;
+        /**
+         * 当前公钥以及仍有未过期 Token 的旧公钥
+         */
+        private final Map<String, VerificationKey> verificationKeys;
+
+        KeyState(CryptoProfile profile, RSAPrivateKey priKey, RSAPublicKey pubKey, KeyState previous, long now) {
+            this.profile = profile;
+            this.priKey = priKey;
+            this.pubKey = pubKey;
+            this.keyId = RsaUtil.keyId(pubKey);
+            this.current = new VerificationKey(keyId, pubKey, profile.getJwtAlgorithm(), profile.getSignatureAlgorithm());
+            Map<String, VerificationKey> keys = new LinkedHashMap<>();
+            keys.put(keyId, current);
+            if (previous != null) {
+                for (VerificationKey key : previous.verificationKeys.values()) {
+                    // 刚轮换下来的公钥可能有签发中、尚未记录过期时间的 Token，保留到下一次轮换再判断
+                    if (key == previous.current || key.getLastTokenExpiresAt() > now) {
+                        keys.putIfAbsent(key.getKeyId(), key);
+                    }
+                }
+            }
+            this.verificationKeys = Collections.unmodifiableMap(keys);
+        }
+
+        private KeyState(CryptoProfile profile, KeyState source) {
+            this.profile = profile;
+            this.priKey = source.priKey;
+            this.pubKey = source.pubKey;
+            this.keyId = source.keyId;
+            this.current = source.current;
+            this.verificationKeys = source.verificationKeys;
+        }
+
+        KeyState withProfile(CryptoProfile newProfile) {
+            return new KeyState(newProfile, this);
+        }
+
+        @Override
+        public Key resolveSigningKey(JwsHeader header, Claims claims) {
+            // 没有 kid 的旧 Token 使用当前公钥验签
+            String kid = header.getKeyId();
+            if (kid == null) {
+                return pubKey;
+            }
+            VerificationKey key = verificationKeys.get(kid);
+            if (key == null || key != current && key.getLastTokenExpiresAt() <= System.currentTimeMillis()) {
+                throw new SignatureException("unknown kid: " + kid);
+            }
+            // 每个公钥只接受它签发时使用的算法
+            if (!key.getJwtAlgorithm().getValue().equals(header.getAlgorithm())) {
+                throw new SignatureException("unexpected alg " + header.getAlgorithm() + " for kid: " + kid);
+            }
+            return key.getPublicKey();
         }
     }
 }
@@ -2,6 +2,10 @@ package com.hro.core.cloudverifyapi.jwt;
 
 public class JwtResult {
 
+    public static final String MSG_SUCCESS = "合法请求";
+    public static final String MSG_TIMEOUT = "token已过期";
+    public static final String MSG_UNVALIDATE = "非法请求";
+
     private boolean status;
     private String uid;
     private String msg;
@@ -0,0 +1,288 @@
+package com.hro.core.cloudverifyapi.jwt;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Token 签发缓存，按 uid + 有效期缓存已签发的 Token
+ *
+ * 已消耗的有效期超过 refreshAheadRatio 后，仍返回原 Token，同时在后台重新签名(refresh-ahead)；
+ * 剩余有效期不足 minRemainingRatio 或签名公钥已轮换时，调用线程同步重新签名。
+ * 同一个 uid + 有效期同一时刻只有一次签名在进行，其余调用方等待或继续使用旧 Token。
+ * 缓存条目超过 maxSize 时先清理已过期的条目，仍然超过则新的 uid 不再缓存，直接签名；
+ * 清理需要遍历全部条目，缓存满时最多每 EVICT_INTERVAL_MILLIS 清理一次。
+ */
+public class TokenCache {
+
+    private static Logger logger = LoggerFactory.getLogger(TokenCache.class);
+
+    private static final long EVICT_INTERVAL_MILLIS = 1000;
+
+    /**
+     * 实际签名，与 JwtManager.getToken(uid, exp) 一致
+     */
+    public interface Signer {
+        String sign(String uid, int exp);
+    }
+
+    private final Signer signer;
+    private final Supplier<String> keyId;
+    private final ConcurrentMap<Key, Entry> entries = new ConcurrentHashMap<>();
+    private final ThreadPoolExecutor refresher;
+    private final AtomicLong nextEvictAt = new AtomicLong();
+
+    private volatile int maxSize = 10000;
+    private volatile double refreshAheadRatio = 0.5;
+    private volatile double minRemainingRatio = 0.2;
+
+    /**
+     * @param signer
+     * @param keyId 当前签名公钥的 kid，变化后旧 Token 不再返回
+     */
+    public TokenCache(Signer signer, Supplier<String> keyId) {
+        this.signer = signer;
+        this.keyId = keyId;
+        // 后台刷新只是提前量，队列满时跳过，到期后由调用线程同步签名
+        this.refresher = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(1024), r -> {
+            Thread thread = new Thread(r, "token-refresh");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * @param maxSize 最多缓存的 uid + 有效期组合数
+     * @param refreshAheadRatio 有效期消耗超过该比例后后台刷新
+     * @param minRemainingRatio 剩余有效期低于该比例后不再返回，同步刷新
+     */
+    public void configure(int maxSize, double refreshAheadRatio, double minRemainingRatio) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("token cache max size must be positive: " + maxSize);
+        }
+        if (refreshAheadRatio <= 0 || minRemainingRatio < 0 || refreshAheadRatio + minRemainingRatio > 1) {
+            throw new IllegalArgumentException("invalid token cache ratios, refresh ahead: " + refreshAheadRatio
+                    + ", min remaining: " + minRemainingRatio);
+        }
+        this.maxSize = maxSize;
+        this.refreshAheadRatio = refreshAheadRatio;
+        this.minRemainingRatio = minRemainingRatio;
+        trim();
+    }
+
+    /**
+     * 获取 Token，命中缓存时不签名
+     * @param uid
+     * @param exp 有效期，单位与 JwtManager.getToken 一致
+     * @return
+     */
+    public String get(String uid, int exp) {
+        Key key = new Key(uid, exp);
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            if (entries.size() >= maxSize) {
+                evictExpiredIfDue();
+                if (entries.size() >= maxSize) {
+                    return signer.sign(uid, exp);
+                }
+            }
+            entry = entries.computeIfAbsent(key, k -> new Entry());
+        }
+        Issued issued = entry.issued;
+        if (usable(issued)) {
+            long ttl = issued.expiresAt - issued.issuedAt;
+            if (System.currentTimeMillis() >= issued.issuedAt + (long) (ttl * refreshAheadRatio)) {
+                entry.refresh(key, issued, true);
+            }
+            return issued.token;
+        }
+        return entry.refresh(key, issued, false).token;
+    }
+
+    /**
+     * kid 未变化且剩余有效期不低于 minRemainingRatio
+     */
+    private boolean usable(Issued issued) {
+        if (issued == null || !issued.keyId.equals(keyId.get())) {
+            return false;
+        }
+        long ttl = issued.expiresAt - issued.issuedAt;
+        return System.currentTimeMillis() < issued.expiresAt - (long) (ttl * minRemainingRatio);
+    }
+
+    /**
+     * 清空缓存，签名密钥或算法变化时调用
+     */
+    public void invalidateAll() {
+        entries.clear();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    private void trim() {
+        if (entries.size() > maxSize) {
+            evictExpired();
+            if (entries.size() > maxSize) {
+                entries.clear();
+            }
+        }
+    }
+
+    /**
+     * 缓存满时每次未命中都遍历代价过高，间隔内的未命中直接签名
+     */
+    private void evictExpiredIfDue() {
+        long now = System.currentTimeMillis();
+        long next = nextEvictAt.get();
+        if (now >= next && nextEvictAt.compareAndSet(next, now + EVICT_INTERVAL_MILLIS)) {
+            evictExpired();
+        }
+    }
+
+    private void evictExpired() {
+        long now = System.currentTimeMillis();
+        entries.values().removeIf(entry -> {
+            Issued issued = entry.issued;
+            return issued != null && issued.expiresAt <= now;
+        });
+    }
+
+    private final class Entry {
+
+        volatile Issued issued;
+
+        final AtomicReference<CompletableFuture<Issued>> pending = new AtomicReference<>();
+
+        /**
+         * @param seen 调用方判断需要刷新时看到的 Token
+         * @param async true 时发起后台刷新后立即返回 null
+         */
+        Issued refresh(Key key, Issued seen, boolean async) {
+            while (true) {
+                CompletableFuture<Issued> future = pending.get();
+                if (future == null) {
+                    CompletableFuture<Issued> mine = new CompletableFuture<>();
+                    if (!pending.compareAndSet(null, mine)) {
+                        continue;
+                    }
+                    // 读取 issued 之后、抢到 pending 之前，其他线程可能已完成签名
+                    Issued current = issued;
+                    if (current != seen && (async || usable(current))) {
+                        pending.set(null);
+                        mine.complete(current);
+                        return async ? null : current;
+                    }
+                    Runnable task = () -> sign(key, mine);
+                    if (!async) {
+                        task.run();
+                        return await(mine);
+                    }
+                    // 后台刷新被拒绝时 mine 会被取消，期间加入等待的调用方重新发起
+                    try {
+                        refresher.execute(task);
+                    } catch (RejectedExecutionException e) {
+                        pending.set(null);
+                        mine.cancel(false);
+                        logger.debug("token refresh queue full, skip refresh ahead");
+                    }
+                    return null;
+                }
+                if (async) {
+                    return null;
+                }
+                if (!future.isCancelled()) {
+                    Issued result = await(future);
+                    if (result != null) {
+                        return result;
+                    }
+                }
+            }
+        }
+
+        private void sign(Key key, CompletableFuture<Issued> future) {
+            try {
+                // 先取 kid 再签名：签名期间密钥轮换时该 Token 会被视为过期，下次重新签名
+                String kid = keyId.get();
+                long issuedAt = System.currentTimeMillis();
+                String token = signer.sign(key.uid, key.exp);
+                Issued next = new Issued(token, kid, issuedAt, issuedAt + TimeUnit.SECONDS.toMillis(key.exp));
+                issued = next;
+                future.complete(next);
+            } catch (Throwable e) {
+                logger.error("token sign error, uid: {}", key.uid, e);
+                future.completeExceptionally(e);
+            } finally {
+                pending.set(null);
+            }
+        }
+
+        private Issued await(CompletableFuture<Issued> future) {
+            try {
+                return future.join();
+            } catch (CancellationException e) {
+                return null;
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) e.getCause();
+                }
+                throw e;
+            }
+        }
+    }
+
+    private static final class Issued {
+        final String token;
+        final String keyId;
+        final long issuedAt;
+        final long expiresAt;
+
+        Issued(String token, String keyId, long issuedAt, long expiresAt) {
+            this.token = token;
+            this.keyId = keyId;
+            this.issuedAt = issuedAt;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    private static final class Key {
+        final String uid;
+        final int exp;
+
+        Key(String uid, int exp) {
+            this.uid = uid;
+            this.exp = exp;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) o;
+            return exp == key.exp && Objects.equals(uid, key.uid);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(uid, exp);
+        }
+    }
+}
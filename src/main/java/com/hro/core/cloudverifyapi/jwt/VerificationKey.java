@@ -0,0 +1,91 @@
+package com.hro.core.cloudverifyapi.jwt;
+
+import com.hro.core.cloudverifyapi.utils.RsaUtil;
+import io.jsonwebtoken.SignatureAlgorithm;
+
+import java.security.interfaces.RSAPublicKey;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 验签公钥及其签名时使用的算法
+ *
+ * 每个密钥对只对应一组算法(算法变化时 JwtManager 重新生成密钥)，轮换后的旧公钥仍按原算法验签。
+ * 同时记录用该密钥签发的 Token 中最晚的过期时间，轮换后保留到该时间为止。
+ */
+public final class VerificationKey {
+
+    private final String keyId;
+    private final RSAPublicKey publicKey;
+    private final SignatureAlgorithm jwtAlgorithm;
+    private final String signatureAlgorithm;
+    private final AtomicLong lastTokenExpiresAt = new AtomicLong();
+
+    VerificationKey(String keyId, RSAPublicKey publicKey, SignatureAlgorithm jwtAlgorithm, String signatureAlgorithm) {
+        this.keyId = keyId;
+        this.publicKey = publicKey;
+        this.jwtAlgorithm = jwtAlgorithm;
+        this.signatureAlgorithm = signatureAlgorithm;
+    }
+
+    public String getKeyId() {
+        return keyId;
+    }
+
+    public RSAPublicKey getPublicKey() {
+        return publicKey;
+    }
+
+    /**
+     * 该公钥签发的 Token 使用的算法
+     * @return
+     */
+    public SignatureAlgorithm getJwtAlgorithm() {
+        return jwtAlgorithm;
+    }
+
+    /**
+     * 该密钥对生效期间 RsaUtil 使用的签名算法
+     * @return
+     */
+    public String getSignatureAlgorithm() {
+        return signatureAlgorithm;
+    }
+
+    /**
+     * @return 用该密钥签发的 Token 中最晚的过期时间(ms)，未签发过为 0
+     */
+    public long getLastTokenExpiresAt() {
+        return lastTokenExpiresAt.get();
+    }
+
+    /**
+     * 按该密钥生效时的签名算法验签
+     * @param content
+     * @param sign
+     * @return
+     */
+    public boolean verifySign(String content, String sign) {
+        return RsaUtil.verifySignByPubKey(content, sign, publicKey, signatureAlgorithm);
+    }
+
+    /**
+     * 按该密钥生效时的签名算法校验批量签名中的单条记录
+     * @param content
+     * @param proof 该记录的包含证明
+     * @param rootSign 批次的根签名
+     * @return
+     */
+    public boolean verifyBatchSign(String content, String proof, String rootSign) {
+        return RsaUtil.verifyBatchSignByPubKey(content, proof, rootSign, publicKey, signatureAlgorithm);
+    }
+
+    /**
+     * 签发 Token 前调用，必须在 Token 返回给调用方之前记录
+     */
+    void recordExpiry(long expiresAt) {
+        long last = lastTokenExpiresAt.get();
+        while (expiresAt > last && !lastTokenExpiresAt.compareAndSet(last, expiresAt)) {
+            last = lastTokenExpiresAt.get();
+        }
+    }
+}
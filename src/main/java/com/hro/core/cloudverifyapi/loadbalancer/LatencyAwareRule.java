@@ -0,0 +1,111 @@
+package com.hro.core.cloudverifyapi.loadbalancer;
+
+import com.netflix.client.config.IClientConfig;
+import com.netflix.loadbalancer.AbstractLoadBalancerRule;
+import com.netflix.loadbalancer.ILoadBalancer;
+import com.netflix.loadbalancer.Server;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 按响应时间与处理中请求数选择实例的 Ribbon 规则(power of two choices)
+ *
+ * 每次从可用实例中随机取两个，选 {@link ServerLatencyTracker#cost(String)} 较小的一个。
+ * 相比全局取最小值，不会让所有客户端同时涌向同一个"最快"实例；相比轮询，GC、预热、线程池打满的慢实例
+ * 会很快失去大部分流量。统计数据由 {@link LatencyTrackingInterceptor} 在请求前后写入。
+ * 每隔 PRUNE_INTERVAL 对比一次负载均衡器的全部实例，删除已从实例列表中消失的实例的统计。
+ *
+ * 按客户端启用：{serviceId}.ribbon.NFLoadBalancerRuleClassName=com.hro.core.cloudverifyapi.loadbalancer.LatencyAwareRule，
+ * 同时开启 verify.loadbalancer.latency-aware.enabled，见 LatencyAwareLoadBalancingConfig。
+ */
+public class LatencyAwareRule extends AbstractLoadBalancerRule {
+
+    private static Logger logger = LoggerFactory.getLogger(LatencyAwareRule.class);
+
+    /**
+     * 与 Ribbon 实例列表的默认刷新间隔一致
+     */
+    private static final long PRUNE_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(30);
+
+    private final ServerLatencyTracker tracker;
+    private final long pruneIntervalNanos;
+
+    /**
+     * 上次对比时负载均衡器的全部实例
+     */
+    private volatile Set<String> known = Collections.emptySet();
+    private volatile long nextPruneNanos = System.nanoTime();
+
+    public LatencyAwareRule() {
+        this(ServerLatencyTracker.getInstance());
+    }
+
+    public LatencyAwareRule(ServerLatencyTracker tracker) {
+        this(tracker, PRUNE_INTERVAL_NANOS);
+    }
+
+    LatencyAwareRule(ServerLatencyTracker tracker, long pruneIntervalNanos) {
+        this.tracker = tracker;
+        this.pruneIntervalNanos = pruneIntervalNanos;
+    }
+
+    @Override
+    public void initWithNiwsConfig(IClientConfig clientConfig) {
+    }
+
+    @Override
+    public Server choose(Object key) {
+        ILoadBalancer lb = getLoadBalancer();
+        if (lb == null) {
+            logger.warn("no load balancer");
+            return null;
+        }
+        pruneIfDue(lb);
+        List<Server> servers = lb.getReachableServers();
+        int size = servers.size();
+        if (size == 0) {
+            logger.warn("no up servers available from load balancer: {}", lb);
+            return null;
+        }
+        if (size == 1) {
+            return servers.get(0);
+        }
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int i = random.nextInt(size);
+        int j = random.nextInt(size - 1);
+        if (j >= i) {
+            j++;
+        }
+        Server first = servers.get(i);
+        Server second = servers.get(j);
+        return tracker.cost(first.getHostPort()) <= tracker.cost(second.getHostPort()) ? first : second;
+    }
+
+    /**
+     * 统计由多个负载均衡器共享，只删除本负载均衡器上次见过、这次已不在列表中的实例
+     */
+    private void pruneIfDue(ILoadBalancer lb) {
+        long now = System.nanoTime();
+        if (now - nextPruneNanos < 0) {
+            return;
+        }
+        nextPruneNanos = now + pruneIntervalNanos;
+        Set<String> current = new HashSet<>();
+        for (Server server : lb.getAllServers()) {
+            current.add(server.getHostPort());
+        }
+        for (String hostPort : known) {
+            if (!current.contains(hostPort)) {
+                tracker.remove(hostPort);
+            }
+        }
+        known = current;
+    }
+}
@@ -0,0 +1,51 @@
+package com.hro.core.cloudverifyapi.loadbalancer;
+
+import org.springframework.http.HttpRequest;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+
+import java.io.IOException;
+import java.net.URI;
+
+/**
+ * 记录每个实例的请求耗时与处理中请求数
+ *
+ * 必须排在 LoadBalancerInterceptor 之后，此时请求地址已被替换为选中实例的 host:port。
+ * 耗时只统计到拿到响应头为止，不包括读取响应体。
+ */
+public class LatencyTrackingInterceptor implements ClientHttpRequestInterceptor {
+
+    private final ServerLatencyTracker tracker;
+
+    public LatencyTrackingInterceptor() {
+        this(ServerLatencyTracker.getInstance());
+    }
+
+    public LatencyTrackingInterceptor(ServerLatencyTracker tracker) {
+        this.tracker = tracker;
+    }
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution)
+            throws IOException {
+        String hostPort = hostPort(request.getURI());
+        long start = tracker.start(hostPort);
+        boolean failed = true;
+        try {
+            ClientHttpResponse response = execution.execute(request, body);
+            failed = response.getRawStatusCode() >= 500;
+            return response;
+        } finally {
+            tracker.end(hostPort, start, failed);
+        }
+    }
+
+    static String hostPort(URI uri) {
+        int port = uri.getPort();
+        if (port < 0) {
+            port = "https".equalsIgnoreCase(uri.getScheme()) ? 443 : 80;
+        }
+        return uri.getHost() + ":" + port;
+    }
+}
@@ -0,0 +1,155 @@
+package com.hro.core.cloudverifyapi.loadbalancer;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 按 host:port 统计各实例的响应时间与处理中请求数，供 {@link LatencyAwareRule} 选择实例
+ *
+ * 响应时间使用 peak EWMA：新样本比当前估计值大时直接取新样本，对变慢的实例立即生效；
+ * 否则按距上次更新的时间衰减后加权平均。读取时估计值按空闲时间向 defaultRtt 衰减(而不是向 0)：
+ * 一段时间没有流量的慢实例回到与新实例相同的代价，仍然输给有样本的快实例，
+ * 只在快实例处理中请求增多时才会被重新探测，恢复后自然回到正常权重。
+ * 没有样本的实例使用 defaultRtt 作为初始估计值。实例从负载均衡器的实例列表中消失后，
+ * 由 {@link LatencyAwareRule} 调用 {@link #remove(String)} 清理其统计。
+ *
+ * Ribbon 通过反射创建 IRule，无法注入 Spring Bean，因此与 JwtManager 一样使用进程内单例。
+ */
+public class ServerLatencyTracker {
+
+    /**
+     * 请求失败(连接异常、5xx)时至少按该耗时计入
+     */
+    static final long FAILURE_PENALTY_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private static final ServerLatencyTracker INSTANCE = new ServerLatencyTracker();
+
+    private final ConcurrentMap<String, Stats> servers = new ConcurrentHashMap<>();
+
+    private volatile long decayNanos = TimeUnit.SECONDS.toNanos(10);
+    private volatile long defaultRttNanos = TimeUnit.MILLISECONDS.toNanos(10);
+
+    public static ServerLatencyTracker getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * @param decayMillis EWMA 衰减时间常数，越小越偏向最近的样本
+     * @param defaultRttMillis 没有样本的实例的初始估计值
+     */
+    public void configure(long decayMillis, long defaultRttMillis) {
+        if (decayMillis <= 0 || defaultRttMillis < 0) {
+            throw new IllegalArgumentException("invalid decay: " + decayMillis + ", default rtt: " + defaultRttMillis);
+        }
+        this.decayNanos = TimeUnit.MILLISECONDS.toNanos(decayMillis);
+        this.defaultRttNanos = TimeUnit.MILLISECONDS.toNanos(defaultRttMillis);
+    }
+
+    /**
+     * 请求发出前调用，返回值用于 {@link #end(String, long, boolean)}
+     * @param hostPort
+     * @return 开始时间
+     */
+    public long start(String hostPort) {
+        stats(hostPort).inFlight.incrementAndGet();
+        return System.nanoTime();
+    }
+
+    /**
+     * 请求结束(包括失败)后调用
+     * @param hostPort
+     * @param startNanos {@link #start(String)} 的返回值
+     * @param failed
+     */
+    public void end(String hostPort, long startNanos, boolean failed) {
+        long now = System.nanoTime();
+        Stats stats = servers.get(hostPort);
+        if (stats == null) {
+            // 请求期间实例已下线，统计已清理
+            return;
+        }
+        stats.inFlight.decrementAndGet();
+        long rtt = now - startNanos;
+        stats.observe(failed ? Math.max(rtt, FAILURE_PENALTY_NANOS) : rtt, now, decayNanos);
+    }
+
+    /**
+     * 实例当前代价：衰减后的响应时间估计值 × (处理中请求数 + 1)，越小越优先
+     * @param hostPort
+     * @return
+     */
+    public double cost(String hostPort) {
+        Stats stats = stats(hostPort);
+        return stats.estimate(System.nanoTime(), decayNanos, defaultRttNanos) * (stats.inFlight.get() + 1);
+    }
+
+    /**
+     * 衰减后的响应时间估计值(ns)
+     * @param hostPort
+     * @return
+     */
+    public double latencyEstimate(String hostPort) {
+        return stats(hostPort).estimate(System.nanoTime(), decayNanos, defaultRttNanos);
+    }
+
+    public int inFlight(String hostPort) {
+        return stats(hostPort).inFlight.get();
+    }
+
+    /**
+     * 删除实例的统计，实例下线时使用
+     * @param hostPort
+     */
+    public void remove(String hostPort) {
+        servers.remove(hostPort);
+    }
+
+    /**
+     * 清空统计，测试时使用
+     */
+    public void reset() {
+        servers.clear();
+    }
+
+    int size() {
+        return servers.size();
+    }
+
+    private Stats stats(String hostPort) {
+        Stats stats = servers.get(hostPort);
+        if (stats == null) {
+            stats = servers.computeIfAbsent(hostPort, k -> new Stats(defaultRttNanos, System.nanoTime()));
+        }
+        return stats;
+    }
+
+    private static final class Stats {
+
+        final AtomicInteger inFlight = new AtomicInteger();
+
+        private double ewma;
+        private long stamp;
+
+        Stats(double initial, long now) {
+            this.ewma = initial;
+            this.stamp = now;
+        }
+
+        synchronized void observe(long rtt, long now, long decayNanos) {
+            if (rtt > ewma) {
+                ewma = rtt;
+            } else {
+                double w = Math.exp(-(double) Math.max(0, now - stamp) / decayNanos);
+                ewma = ewma * w + rtt * (1 - w);
+            }
+            stamp = now;
+        }
+
+        synchronized double estimate(long now, long decayNanos, double prior) {
+            long elapsed = Math.max(0, now - stamp);
+            return prior + (ewma - prior) * Math.exp(-(double) elapsed / decayNanos);
+        }
+    }
+}
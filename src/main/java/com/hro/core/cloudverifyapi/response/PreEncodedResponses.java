@@ -0,0 +1,166 @@
+package com.hro.core.cloudverifyapi.response;
+
+import com.fasterxml.jackson.core.io.JsonStringEncoder;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hro.core.cloudverifyapi.enums.ResultCodeEnum;
+import com.hro.core.cloudverifyapi.jwt.JwtResult;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * 预编码的 JSON 响应
+ *
+ * 校验结果绝大多数是固定的几种(SUCCESS / TOKEN_TIMEOUT / TOKEN_UNVALIDATE)，启动时用 Jackson 序列化一次并缓存字节，
+ * 之后直接写出，SUCCESS 只拼接可变的 uid 字段。无法命中缓存的结果回退到 Jackson，输出格式保持一致。
+ */
+public final class PreEncodedResponses {
+
+    public static final String CONTENT_TYPE = "application/json;charset=UTF-8";
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private static final String UID_PLACEHOLDER = "__uid__";
+    private static final byte[] NULL_BYTES = "null".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] QUOTE = {'"'};
+
+    /**
+     * CommonWrapper 形式 {"code":..,"msg":..}，按 ResultCodeEnum 缓存
+     */
+    private static final Map<ResultCodeEnum, byte[]> COMMON_WRAPPERS = new EnumMap<>(ResultCodeEnum.class);
+
+    /**
+     * 失败结果(uid 为空)的完整字节
+     */
+    private static final byte[] TOKEN_TIMEOUT_RESULT;
+    private static final byte[] TOKEN_UNVALIDATE_RESULT;
+
+    /**
+     * SUCCESS 结果在 uid 值前后的字节
+     */
+    private static final byte[] SUCCESS_PREFIX;
+    private static final byte[] SUCCESS_SUFFIX;
+
+    static {
+        try {
+            for (ResultCodeEnum codeEnum : ResultCodeEnum.values()) {
+                CommonWrapper wrapper = new CommonWrapper();
+                wrapper.setCode(codeEnum.getCode());
+                wrapper.setMsg(codeEnum.getDesc());
+                COMMON_WRAPPERS.put(codeEnum, MAPPER.writeValueAsBytes(wrapper));
+            }
+
+            TOKEN_TIMEOUT_RESULT = MAPPER.writeValueAsBytes(
+                    new JwtResult(false, null, JwtResult.MSG_TIMEOUT, ResultCodeEnum.TOKEN_TIMEOUT.getCode()));
+            TOKEN_UNVALIDATE_RESULT = MAPPER.writeValueAsBytes(
+                    new JwtResult(false, null, JwtResult.MSG_UNVALIDATE, ResultCodeEnum.TOKEN_UNVALIDATE.getCode()));
+
+            // 以占位 uid 序列化一次，再按占位符切分出前后两段
+            String success = MAPPER.writeValueAsString(
+                    new JwtResult(true, UID_PLACEHOLDER, JwtResult.MSG_SUCCESS, ResultCodeEnum.SUCCESS.getCode()));
+            String quotedPlaceholder = "\"" + UID_PLACEHOLDER + "\"";
+            int idx = success.indexOf(quotedPlaceholder);
+            SUCCESS_PREFIX = success.substring(0, idx).getBytes(StandardCharsets.UTF_8);
+            SUCCESS_SUFFIX = success.substring(idx + quotedPlaceholder.length()).getBytes(StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private PreEncodedResponses() {
+    }
+
+    /**
+     * 获取 CommonWrapper 的预编码字节，调用方不可修改返回的数组
+     * @param codeEnum
+     * @return
+     */
+    public static byte[] commonWrapper(ResultCodeEnum codeEnum) {
+        return COMMON_WRAPPERS.get(codeEnum);
+    }
+
+    /**
+     * 把校验结果编码为 JSON 字节
+     * @param result
+     * @return
+     * @throws IOException
+     */
+    public static byte[] jwtResult(JwtResult result) throws IOException {
+        byte[] cached = cachedFailure(result);
+        if (cached != null) {
+            return cached;
+        }
+        if (isCachedSuccess(result)) {
+            if (result.getUid() == null) {
+                return concat(SUCCESS_PREFIX, NULL_BYTES, SUCCESS_SUFFIX);
+            }
+            return concat(SUCCESS_PREFIX, QUOTE, JsonStringEncoder.getInstance().quoteAsUTF8(result.getUid()), QUOTE, SUCCESS_SUFFIX);
+        }
+        return MAPPER.writeValueAsBytes(result);
+    }
+
+    /**
+     * 把校验结果直接写入输出流，命中缓存时不产生中间 byte[]
+     * @param result
+     * @param out
+     * @return 写出的字节数
+     * @throws IOException
+     */
+    public static int writeJwtResult(JwtResult result, OutputStream out) throws IOException {
+        byte[] cached = cachedFailure(result);
+        if (cached != null) {
+            out.write(cached);
+            return cached.length;
+        }
+        if (isCachedSuccess(result) && result.getUid() != null) {
+            byte[] uid = JsonStringEncoder.getInstance().quoteAsUTF8(result.getUid());
+            out.write(SUCCESS_PREFIX);
+            out.write(QUOTE);
+            out.write(uid);
+            out.write(QUOTE);
+            out.write(SUCCESS_SUFFIX);
+            return SUCCESS_PREFIX.length + uid.length + 2 + SUCCESS_SUFFIX.length;
+        }
+        byte[] bytes = jwtResult(result);
+        out.write(bytes);
+        return bytes.length;
+    }
+
+    private static byte[] cachedFailure(JwtResult result) {
+        if (result.isStatus() || result.getUid() != null) {
+            return null;
+        }
+        if (ResultCodeEnum.TOKEN_UNVALIDATE.getCode().equals(result.getCode())
+                && JwtResult.MSG_UNVALIDATE.equals(result.getMsg())) {
+            return TOKEN_UNVALIDATE_RESULT;
+        }
+        if (ResultCodeEnum.TOKEN_TIMEOUT.getCode().equals(result.getCode())
+                && JwtResult.MSG_TIMEOUT.equals(result.getMsg())) {
+            return TOKEN_TIMEOUT_RESULT;
+        }
+        return null;
+    }
+
+    private static boolean isCachedSuccess(JwtResult result) {
+        return result.isStatus()
+                && ResultCodeEnum.SUCCESS.getCode().equals(result.getCode())
+                && JwtResult.MSG_SUCCESS.equals(result.getMsg());
+    }
+
+    private static byte[] concat(byte[]... parts) {
+        int len = 0;
+        for (byte[] part : parts) {
+            len += part.length;
+        }
+        byte[] bytes = new byte[len];
+        int pos = 0;
+        for (byte[] part : parts) {
+            System.arraycopy(part, 0, bytes, pos, part.length);
+            pos += part.length;
+        }
+        return bytes;
+    }
+}
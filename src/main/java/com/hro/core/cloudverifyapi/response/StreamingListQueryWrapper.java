@@ -0,0 +1,18 @@
+package com.hro.core.cloudverifyapi.response;
+
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * 多个结果检索(流式)，输出结构同 {@link ListQueryWrapper}
+ */
+public class StreamingListQueryWrapper<T> extends StreamingWrapper<T> {
+
+    public StreamingListQueryWrapper(Iterator<? extends T> records) {
+        super(records);
+    }
+
+    public StreamingListQueryWrapper(Stream<? extends T> records) {
+        super(records);
+    }
+}
@@ -0,0 +1,47 @@
+package com.hro.core.cloudverifyapi.response;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * 分页检索(流式)，输出结构同 {@link PageSearchWrapper}
+ */
+public class StreamingPageSearchWrapper<T> extends StreamingWrapper<T> {
+
+    private int totalCount;
+
+    private int pageNo;
+
+    public StreamingPageSearchWrapper(Iterator<? extends T> records) {
+        super(records);
+    }
+
+    public StreamingPageSearchWrapper(Stream<? extends T> records) {
+        super(records);
+    }
+
+    public int getTotalCount() {
+        return totalCount;
+    }
+
+    public void setTotalCount(int totalCount) {
+        this.totalCount = totalCount;
+    }
+
+    public int getPageNo() {
+        return pageNo;
+    }
+
+    public void setPageNo(int pageNo) {
+        this.pageNo = pageNo;
+    }
+
+    @Override
+    protected void writeEnvelope(JsonGenerator gen) throws IOException {
+        gen.writeNumberField("totalCount", totalCount);
+        gen.writeNumberField("pageNo", pageNo);
+    }
+}
@@ -0,0 +1,142 @@
+package com.hro.core.cloudverifyapi.response;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.context.request.async.WebAsyncManager;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+/**
+ * 流式结果集父类
+ *
+ * 记录由 Iterator / Stream 提供，写出时逐条经 JsonGenerator 输出到响应流，不在内存中构建完整列表，
+ * 内存占用与记录数无关。输出的 JSON 结构与对应的非流式 Wrapper 一致。
+ * Controller 中直接返回 {@link #toResponseEntity()} 即可。
+ * 由 Stream 构造时，写出结束后关闭 Stream；客户端断开、异步请求超时等导致 writeTo 未被调用时，
+ * toResponseEntity 登记的回调在请求结束时关闭；不经 toResponseEntity 返回时由调用方 {@link #close()}。
+ * 记录来源与 ObjectMapper 不参与序列化。
+ */
+public abstract class StreamingWrapper<T> extends CommonWrapper implements StreamingResponseBody, AutoCloseable {
+
+    private static final ObjectMapper DEFAULT_MAPPER = new ObjectMapper();
+
+    private final transient Iterator<? extends T> records;
+
+    private final transient AutoCloseable source;
+
+    private final transient AtomicBoolean closed = new AtomicBoolean();
+
+    private transient ObjectMapper objectMapper = DEFAULT_MAPPER;
+
+    protected StreamingWrapper(Iterator<? extends T> records) {
+        this.records = records;
+        this.source = null;
+    }
+
+    protected StreamingWrapper(Stream<? extends T> records) {
+        this.records = records.iterator();
+        this.source = records;
+    }
+
+    /**
+     * 指定序列化记录使用的 ObjectMapper，一般传入 Spring 容器中的实例
+     * @param objectMapper
+     */
+    public void setObjectMapper(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * 包装为 application/json 响应
+     * @return
+     */
+    public ResponseEntity<StreamingResponseBody> toResponseEntity() {
+        closeOnRequestCompletion();
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(this);
+    }
+
+    /**
+     * 关闭记录来源 Stream，可重复调用
+     * @throws IOException
+     */
+    @Override
+    public void close() throws IOException {
+        closeSource();
+    }
+
+    @Override
+    public void writeTo(OutputStream outputStream) throws IOException {
+        try (JsonGenerator gen = objectMapper.getFactory().createGenerator(outputStream)) {
+            gen.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            // 中途出错时不补齐 ]}，客户端收到的是不完整的 JSON，而不是 code 为成功、records 被截断的响应
+            gen.disable(JsonGenerator.Feature.AUTO_CLOSE_JSON_CONTENT);
+            gen.writeStartObject();
+            gen.writeStringField("code", getCode());
+            gen.writeStringField("msg", getMsg());
+            writeEnvelope(gen);
+            gen.writeArrayFieldStart("records");
+            while (records.hasNext()) {
+                gen.writeObject(records.next());
+            }
+            gen.writeEndArray();
+            gen.writeEndObject();
+        } finally {
+            closeSource();
+        }
+    }
+
+    /**
+     * 写出 code、msg 之外的信封字段
+     * @param gen
+     * @throws IOException
+     */
+    protected void writeEnvelope(JsonGenerator gen) throws IOException {
+    }
+
+    /**
+     * 异步请求结束(正常完成、超时、出错)后关闭；writeTo 已关闭时不再重复关闭
+     */
+    private void closeOnRequestCompletion() {
+        if (source == null) {
+            return;
+        }
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (!(attributes instanceof ServletRequestAttributes)) {
+            return;
+        }
+        WebAsyncManager asyncManager = WebAsyncUtils.getAsyncManager(((ServletRequestAttributes) attributes).getRequest());
+        asyncManager.registerCallableInterceptor(this, new CallableProcessingInterceptor() {
+            @Override
+            public <V> void afterCompletion(NativeWebRequest request, Callable<V> task) throws Exception {
+                close();
+            }
+        });
+    }
+
+    private void closeSource() throws IOException {
+        if (source == null || !closed.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            source.close();
+        } catch (IOException | RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IOException(e);
+        }
+    }
+}
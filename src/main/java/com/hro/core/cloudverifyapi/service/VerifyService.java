@@ -1,18 +1,148 @@
 package com.hro.core.cloudverifyapi.service;
 
+import com.hro.core.cloudverifyapi.config.CryptoExecutorConfig;
+import com.hro.core.cloudverifyapi.jwt.JwtManager;
+import com.hro.core.cloudverifyapi.jwt.JwtResult;
+import com.hro.core.cloudverifyapi.jwt.VerificationKey;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.AsyncTaskExecutor;
 import org.springframework.stereotype.Service;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import javax.annotation.PostConstruct;
+import java.math.BigInteger;
+import java.security.interfaces.RSAPublicKey;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
 @Service
 public class VerifyService {
 
     private static Logger logger = LoggerFactory.getLogger(VerifyService.class);
 
+    @Autowired
+    @Qualifier(CryptoExecutorConfig.CRYPTO_EXECUTOR)
+    private AsyncTaskExecutor cryptoExecutor;
+
+    /**
+     * 批量校验时每个并行分片的最少 token 数，低于该值直接在请求线程中校验
+     */
+    @Value("${verify.batch.chunk-size:16}")
+    private int chunkSize;
+
+    /**
+     * 单次批量校验的 token 数上限；加解密线程池饱和时分片回落到请求线程执行，不设上限会长时间占住 Tomcat 线程
+     */
+    @Value("${verify.batch.max-size:1000}")
+    private int maxBatchSize;
+
+    /**
+     * 启动时参数非法直接失败：chunk-size 为 0 时分片循环不会结束
+     */
+    @PostConstruct
+    public void init() {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("verify.batch.chunk-size must be positive: " + chunkSize);
+        }
+        if (maxBatchSize <= 0) {
+            throw new IllegalArgumentException("verify.batch.max-size must be positive: " + maxBatchSize);
+        }
+    }
 
     public boolean rsaTokenCheck(String token) {
-        boolean isOk = false;
+        return checkToken(token).isStatus();
+    }
+
+    /**
+     * 校验Token
+     * @param token
+     * @return JwtResult
+     */
+    public JwtResult checkToken(String token) {
+        JwtResult result = JwtManager.getInstance().checkToken(token);
+        if (logger.isDebugEnabled()) {
+            logger.debug("check token, status: {}, code: {}", result.isStatus(), result.getCode());
+        }
+        return result;
+    }
+
+    /**
+     * 批量校验Token，结果顺序与入参一致；数量较多时按分片并行提交到加解密线程池
+     * @param tokens
+     * @return
+     * @throws IllegalArgumentException 数量超过 {@link #getMaxBatchSize()}
+     */
+    public List<JwtResult> checkTokens(List<String> tokens) {
+        int size = tokens.size();
+        if (size > maxBatchSize) {
+            throw new IllegalArgumentException("batch size " + size + " exceeds verify.batch.max-size " + maxBatchSize);
+        }
+        JwtResult[] results = new JwtResult[size];
+        if (size <= chunkSize) {
+            checkRange(tokens, results, 0, size);
+            return Arrays.asList(results);
+        }
+
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+        // 第一个分片留给请求线程自己执行
+        for (int from = chunkSize; from < size; from += chunkSize) {
+            int start = from;
+            int end = Math.min(from + chunkSize, size);
+            futures.add(CompletableFuture.runAsync(() -> checkRange(tokens, results, start, end), cryptoExecutor));
+        }
+        checkRange(tokens, results, 0, chunkSize);
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+        return Arrays.asList(results);
+    }
+
+    public int getMaxBatchSize() {
+        return maxBatchSize;
+    }
+
+    /**
+     * 当前的验签公钥集合，JWKS(RFC 7517) 格式，供客户端本地验签
+     * @return
+     */
+    public Map<String, Object> publicKeySet() {
+        List<Map<String, Object>> keys = new ArrayList<>();
+        for (VerificationKey key : JwtManager.getInstance().getVerificationKeys().values()) {
+            RSAPublicKey publicKey = key.getPublicKey();
+            Map<String, Object> jwk = new LinkedHashMap<>();
+            jwk.put("kty", "RSA");
+            jwk.put("use", "sig");
+            jwk.put("alg", key.getJwtAlgorithm().getValue());
+            jwk.put("kid", key.getKeyId());
+            jwk.put("n", base64Url(publicKey.getModulus()));
+            jwk.put("e", base64Url(publicKey.getPublicExponent()));
+            keys.add(jwk);
+        }
+        return Collections.singletonMap("keys", keys);
+    }
+
+    /**
+     * 无符号大端字节的 URL 安全 Base64，去掉 BigInteger 的符号位字节
+     */
+    private static String base64Url(BigInteger value) {
+        byte[] bytes = value.toByteArray();
+        if (bytes.length > 1 && bytes[0] == 0) {
+            bytes = Arrays.copyOfRange(bytes, 1, bytes.length);
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
 
-        return isOk;
+    private void checkRange(List<String> tokens, JwtResult[] results, int from, int to) {
+        JwtManager manager = JwtManager.getInstance();
+        for (int i = from; i < to; i++) {
+            results[i] = manager.checkToken(tokens.get(i));
+        }
     }
 }
@@ -0,0 +1,128 @@
+package com.hro.core.cloudverifyapi.startup;
+
+import com.hro.core.cloudverifyapi.jwt.JwtManager;
+import com.hro.core.cloudverifyapi.jwt.JwtResult;
+import com.hro.core.cloudverifyapi.response.PreEncodedResponses;
+import com.hro.core.cloudverifyapi.utils.VerifyBinaryCodec;
+import com.netflix.appinfo.ApplicationInfoManager;
+import com.netflix.appinfo.InstanceInfo;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 启动后的加解密预热
+ *
+ * 生成密钥、签发并反复校验 Token，让密钥生成、JIT 编译、类加载在接入流量前完成。
+ * 预热完成前健康状态为 OUT_OF_SERVICE，配合 eureka.instance.initial-status=STARTING 延迟接入 Eureka，
+ * 预热完成后把实例状态置为 UP。
+ * verify.startup.warmup-enabled=true 时启用(faststart 配置中已开启)；预热在单独的线程中执行，不占用事件发布线程。
+ */
+@Component
+@Lazy(false)
+@ConditionalOnProperty(name = "verify.startup.warmup-enabled", havingValue = "true")
+public class CryptoWarmup implements HealthIndicator {
+
+    private static Logger logger = LoggerFactory.getLogger(CryptoWarmup.class);
+
+    @Value("${verify.startup.warmup-iterations:500}")
+    private int iterations;
+
+    /**
+     * 预热后退出进程，用于生成 AppCDS 归档的训练运行
+     */
+    @Value("${verify.startup.exit-after-warmup:false}")
+    private boolean exitAfterWarmup;
+
+    @Autowired
+    private ApplicationContext applicationContext;
+
+    @Autowired
+    private ObjectProvider<ApplicationInfoManager> applicationInfoManager;
+
+    private volatile boolean warmedUp;
+
+    @EventListener
+    public void onApplicationReady(ApplicationReadyEvent event) {
+        if (event.getApplicationContext() != applicationContext) {
+            return;
+        }
+        Thread thread = new Thread(this::runWarmup, "crypto-warmup");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private void runWarmup() {
+        long start = System.currentTimeMillis();
+        try {
+            warmup();
+        } catch (Exception e) {
+            // 预热失败不影响启动，首个请求会自行初始化
+            logger.error("crypto warmup error", e);
+        }
+        long elapsed = System.currentTimeMillis() - start;
+        warmedUp = true;
+        markUp();
+        applicationContext.publishEvent(new CryptoWarmupEvent(applicationContext, elapsed));
+
+        if (exitAfterWarmup) {
+            logger.info("exit after warmup");
+            System.exit(SpringApplication.exit(applicationContext));
+        }
+    }
+
+    public boolean isWarmedUp() {
+        return warmedUp;
+    }
+
+    @Override
+    public Health health() {
+        return warmedUp ? Health.up().build() : Health.status(Status.OUT_OF_SERVICE).withDetail("warmup", "running").build();
+    }
+
+    private void warmup() throws Exception {
+        JwtManager manager = JwtManager.getInstance();
+        int tokenCount = Math.max(1, iterations / 25);
+        List<String> tokens = new ArrayList<>(tokenCount);
+        for (int i = 0; i < tokenCount; i++) {
+            tokens.add(JwtManager.getToken("warmup-" + i, 60));
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        for (int i = 0; i < iterations; i++) {
+            JwtResult result = manager.checkToken(tokens.get(i % tokenCount));
+            out.reset();
+            PreEncodedResponses.writeJwtResult(result, out);
+        }
+        List<JwtResult> results = new ArrayList<>(tokenCount);
+        for (String token : VerifyBinaryCodec.decodeRequest(VerifyBinaryCodec.encodeRequest(tokens))) {
+            results.add(manager.checkToken(token));
+        }
+        out.reset();
+        VerifyBinaryCodec.encodeResults(results, out);
+        logger.debug("crypto warmup finished, tokens: {}, checks: {}", tokenCount, iterations);
+    }
+
+    private void markUp() {
+        ApplicationInfoManager infoManager = applicationInfoManager.getIfAvailable();
+        if (infoManager != null && infoManager.getInfo().getStatus() != InstanceInfo.InstanceStatus.UP) {
+            infoManager.setInstanceStatus(InstanceInfo.InstanceStatus.UP);
+            logger.info("eureka instance status set to UP after warmup");
+        }
+    }
+}
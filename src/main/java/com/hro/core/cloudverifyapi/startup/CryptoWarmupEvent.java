@@ -0,0 +1,21 @@
+package com.hro.core.cloudverifyapi.startup;
+
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.ApplicationEvent;
+
+/**
+ * 加解密预热完成事件，source 为发布事件的 ApplicationContext
+ */
+public class CryptoWarmupEvent extends ApplicationEvent {
+
+    private final long elapsedMillis;
+
+    public CryptoWarmupEvent(ApplicationContext source, long elapsedMillis) {
+        super(source);
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+}
@@ -0,0 +1,94 @@
+package com.hro.core.cloudverifyapi.startup;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationContextInitializedEvent;
+import org.springframework.boot.context.event.ApplicationEnvironmentPreparedEvent;
+import org.springframework.boot.context.event.ApplicationPreparedEvent;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.boot.context.event.ApplicationStartingEvent;
+import org.springframework.boot.web.context.WebServerInitializedEvent;
+import org.springframework.cloud.bootstrap.BootstrapApplicationListener;
+import org.springframework.cloud.client.discovery.event.InstanceRegisteredEvent;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.ApplicationEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.core.Ordered;
+
+import java.lang.management.ManagementFactory;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 启动耗时分阶段统计，在 META-INF/spring.factories 中注册，以便收到 ApplicationStartingEvent
+ *
+ * 各阶段从 JVM 启动开始计时，加解密预热完成后输出一次报告；未启用预热时在 ApplicationReadyEvent 时输出。
+ * Spring Cloud 的 bootstrap 上下文也会创建本监听器的实例，该实例忽略所有事件。
+ */
+public class StartupTimingListener implements ApplicationListener<ApplicationEvent>, Ordered {
+
+    private static Logger logger = LoggerFactory.getLogger(StartupTimingListener.class);
+
+    private final long jvmStartTime = ManagementFactory.getRuntimeMXBean().getStartTime();
+
+    private final Map<String, Long> phases = new LinkedHashMap<>();
+
+    private ApplicationContext context;
+
+    private boolean bootstrap;
+
+    @Override
+    public int getOrder() {
+        // 先于 CryptoWarmup 收到 ApplicationReadyEvent
+        return Ordered.HIGHEST_PRECEDENCE;
+    }
+
+    @Override
+    public void onApplicationEvent(ApplicationEvent event) {
+        if (bootstrap) {
+            return;
+        }
+        if (event instanceof ApplicationStartingEvent) {
+            mark("jvm");
+        } else if (event instanceof ApplicationEnvironmentPreparedEvent) {
+            bootstrap = ((ApplicationEnvironmentPreparedEvent) event).getEnvironment().getPropertySources()
+                    .contains(BootstrapApplicationListener.BOOTSTRAP_PROPERTY_SOURCE_NAME);
+            mark("environment");
+        } else if (event instanceof ApplicationContextInitializedEvent) {
+            mark("contextInitialized");
+        } else if (event instanceof ApplicationPreparedEvent) {
+            context = ((ApplicationPreparedEvent) event).getApplicationContext();
+            mark("beanDefinitions");
+        } else if (event instanceof WebServerInitializedEvent) {
+            mark("beansAndWebServer");
+        } else if (event instanceof InstanceRegisteredEvent) {
+            mark("eurekaRegistration");
+        } else if (event instanceof ApplicationStartedEvent) {
+            mark("started");
+        } else if (event instanceof ApplicationReadyEvent) {
+            mark("ready");
+            if (context != null && context.getBeanNamesForType(CryptoWarmup.class, false, false).length == 0) {
+                report();
+            }
+        } else if (event instanceof CryptoWarmupEvent && event.getSource() == context) {
+            mark("cryptoWarmup");
+            report();
+        }
+    }
+
+    private synchronized void mark(String phase) {
+        phases.putIfAbsent(phase, System.currentTimeMillis());
+    }
+
+    private synchronized void report() {
+        StringBuilder sb = new StringBuilder("startup timing (ms since jvm start):");
+        long previous = jvmStartTime;
+        for (Map.Entry<String, Long> entry : phases.entrySet()) {
+            sb.append(String.format("%n  %-20s at %6d  took %6d", entry.getKey(),
+                    entry.getValue() - jvmStartTime, entry.getValue() - previous));
+            previous = entry.getValue();
+        }
+        logger.info(sb.toString());
+    }
+}
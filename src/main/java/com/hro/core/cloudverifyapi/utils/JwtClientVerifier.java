@@ -0,0 +1,209 @@
+package com.hro.core.cloudverifyapi.utils;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hro.core.cloudverifyapi.enums.ResultCodeEnum;
+import com.hro.core.cloudverifyapi.jwt.JwtResult;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SigningKeyResolverAdapter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.security.Key;
+import java.security.PublicKey;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 客户端本地验签工具
+ *
+ * 首次使用时从 verify-api 的 /verify/jwks 拉取公钥集合并缓存，超过刷新间隔后由首个到达的请求线程刷新，
+ * 刷新失败时继续使用旧公钥。Token 头部 kid 命中缓存时在本地验签，结果与 JwtManager.checkToken 语义一致；
+ * kid 未知(如服务端刚轮换密钥)时回退到远程 /verify/token 校验，并尽快刷新公钥集合。
+ *
+ * 实例线程安全，应用内共享一个即可。
+ */
+public class JwtClientVerifier {
+
+	private static Logger logger = LoggerFactory.getLogger(JwtClientVerifier.class);
+
+	public static final String JWKS_PATH = "/verify/jwks";
+	public static final String VERIFY_PATH = "/verify/token";
+
+	/**
+	 * 遇到未知 kid 时，距上次拉取超过该时间才会再次拉取，避免伪造 kid 的请求打爆 JWKS 接口
+	 */
+	private static final long UNKNOWN_KID_REFRESH_MILLIS = 10 * 1000L;
+
+	private static final ObjectMapper MAPPER = new ObjectMapper();
+
+	private final String baseUrl;
+	private final long refreshIntervalMillis;
+	private final int connectTimeoutMillis;
+	private final int readTimeoutMillis;
+
+	private final ReentrantLock refreshLock = new ReentrantLock();
+
+	/**
+	 * kid -> 公钥，整体替换保证读线程看到完整的一组公钥
+	 */
+	private volatile Map<String, PublicKey> keys = Collections.emptyMap();
+	private volatile long fetchedAt;
+
+	/**
+	 * @param baseUrl verify-api 地址，如 http://127.0.0.1:8086
+	 * @param refreshIntervalMillis 公钥集合刷新间隔，不能小于未知 kid 的拉取间隔(10 秒)
+	 */
+	public JwtClientVerifier(String baseUrl, long refreshIntervalMillis) {
+		this(baseUrl, refreshIntervalMillis, 1000, 3000);
+	}
+
+	public JwtClientVerifier(String baseUrl, long refreshIntervalMillis, int connectTimeoutMillis, int readTimeoutMillis) {
+		// 拉取失败后按 refreshIntervalMillis 回退 fetchedAt，间隔过短时回退会失效
+		if (refreshIntervalMillis < UNKNOWN_KID_REFRESH_MILLIS) {
+			throw new IllegalArgumentException("refreshIntervalMillis must be at least "
+					+ UNKNOWN_KID_REFRESH_MILLIS + ", got " + refreshIntervalMillis);
+		}
+		this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+		this.refreshIntervalMillis = refreshIntervalMillis;
+		this.connectTimeoutMillis = connectTimeoutMillis;
+		this.readTimeoutMillis = readTimeoutMillis;
+	}
+
+	/**
+	 * 校验Token
+	 * @param token
+	 * @return JwtResult
+	 */
+	public JwtResult verify(String token) {
+		refreshIfOlderThan(refreshIntervalMillis, fetchedAt == 0);
+		try {
+			Claims claims = Jwts.parser().setSigningKeyResolver(new SigningKeyResolverAdapter() {
+				@Override
+				public Key resolveSigningKey(JwsHeader header, Claims claims) {
+					PublicKey key = keys.get(header.getKeyId());
+					if (key == null) {
+						throw new UnknownKeyIdException();
+					}
+					return key;
+				}
+			}).parseClaimsJws(token).getBody();
+			String sub = claims.get("sub", String.class);
+			return new JwtResult(true, sub, JwtResult.MSG_SUCCESS, ResultCodeEnum.SUCCESS.getCode());
+		} catch (UnknownKeyIdException e) {
+			refreshIfOlderThan(UNKNOWN_KID_REFRESH_MILLIS, false);
+			return verifyRemote(token);
+		} catch (ExpiredJwtException e) {
+			return new JwtResult(false, null, JwtResult.MSG_TIMEOUT, ResultCodeEnum.TOKEN_TIMEOUT.getCode());
+		} catch (Exception e) {
+			return new JwtResult(false, null, JwtResult.MSG_UNVALIDATE, ResultCodeEnum.TOKEN_UNVALIDATE.getCode());
+		}
+	}
+
+	/**
+	 * 调用 verify-api 远程校验Token
+	 * @param token
+	 * @return JwtResult
+	 */
+	public JwtResult verifyRemote(String token) {
+		try {
+			byte[] form = ("token=" + URLEncoder.encode(token, "UTF-8")).getBytes(StandardCharsets.UTF_8);
+			HttpURLConnection conn = open(VERIFY_PATH);
+			conn.setRequestMethod("POST");
+			conn.setDoOutput(true);
+			conn.setRequestProperty("Content-Type", "application/x-www-form-urlencoded");
+			try (OutputStream out = conn.getOutputStream()) {
+				out.write(form);
+			}
+			try (InputStream in = conn.getInputStream()) {
+				return MAPPER.readValue(in, JwtResult.class);
+			}
+		} catch (Exception e) {
+			logger.error("remote verify error, url: {}", baseUrl, e);
+			return new JwtResult(false, null, ResultCodeEnum.FAILURE.getDesc(), ResultCodeEnum.FAILURE.getCode());
+		}
+	}
+
+	/**
+	 * 立即重新拉取公钥集合
+	 * @throws IOException
+	 */
+	public void refresh() throws IOException {
+		HttpURLConnection conn = open(JWKS_PATH);
+		JsonNode jwks;
+		try (InputStream in = conn.getInputStream()) {
+			jwks = MAPPER.readTree(in);
+		}
+		Map<String, PublicKey> loaded = new HashMap<>();
+		for (JsonNode jwk : jwks.path("keys")) {
+			if (!"RSA".equals(jwk.path("kty").asText())) {
+				continue;
+			}
+			try {
+				loaded.put(jwk.path("kid").asText(),
+						RsaClientUtil.restoreJwkPublicKey(jwk.path("n").asText(), jwk.path("e").asText()));
+			} catch (Exception e) {
+				logger.warn("skip invalid jwk, kid: {}", jwk.path("kid").asText(), e);
+			}
+		}
+		keys = Collections.unmodifiableMap(loaded);
+		fetchedAt = System.currentTimeMillis();
+		logger.info("jwks refreshed, kids: {}", loaded.keySet());
+	}
+
+	/**
+	 * 缓存超过 maxAgeMillis 时刷新；同一时刻只有一个线程去拉取，其余线程继续使用旧公钥
+	 * @param maxAgeMillis
+	 * @param wait 是否等待正在进行的刷新(首次加载时使用)
+	 */
+	private void refreshIfOlderThan(long maxAgeMillis, boolean wait) {
+		if (System.currentTimeMillis() - fetchedAt < maxAgeMillis) {
+			return;
+		}
+		if (wait) {
+			refreshLock.lock();
+		} else if (!refreshLock.tryLock()) {
+			return;
+		}
+		try {
+			if (System.currentTimeMillis() - fetchedAt >= maxAgeMillis) {
+				refresh();
+			}
+		} catch (Exception e) {
+			// 避免拉取失败时每个请求都重试
+			fetchedAt = System.currentTimeMillis() - refreshIntervalMillis + UNKNOWN_KID_REFRESH_MILLIS;
+			logger.warn("jwks refresh error, url: {}, keep {} cached keys", baseUrl, keys.size(), e);
+		} finally {
+			refreshLock.unlock();
+		}
+	}
+
+	private HttpURLConnection open(String path) throws IOException {
+		HttpURLConnection conn = (HttpURLConnection) new URL(baseUrl + path).openConnection();
+		conn.setConnectTimeout(connectTimeoutMillis);
+		conn.setReadTimeout(readTimeoutMillis);
+		conn.setRequestProperty("Accept", "application/json");
+		return conn;
+	}
+
+	/**
+	 * 公钥集合中没有 Token 对应的 kid
+	 */
+	private static class UnknownKeyIdException extends RuntimeException {
+		UnknownKeyIdException() {
+			super(null, null, false, false);
+		}
+	}
+}
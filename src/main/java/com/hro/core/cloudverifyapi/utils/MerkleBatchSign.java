@@ -0,0 +1,39 @@
+package com.hro.core.cloudverifyapi.utils;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 批量签名结果：一批记录共用一个根签名，每条记录各自携带包含证明，
+ * 按 {@link RsaUtil#verifyBatchSignByPubKey(String, String, String, java.security.PublicKey)} 单独校验
+ */
+public final class MerkleBatchSign {
+
+	private final String rootSign;
+	private final List<String> proofs;
+
+	MerkleBatchSign(String rootSign, List<String> proofs) {
+		this.rootSign = rootSign;
+		this.proofs = Collections.unmodifiableList(proofs);
+	}
+
+	/**
+	 * Merkle 根的签名值，编码与 RsaUtil.signByPriKey 一致
+	 * @return
+	 */
+	public String getRootSign() {
+		return rootSign;
+	}
+
+	/**
+	 * 按记录顺序的包含证明，见 {@link MerkleTree.Proof#encode()}
+	 * @return
+	 */
+	public List<String> getProofs() {
+		return proofs;
+	}
+
+	public String getProof(int index) {
+		return proofs.get(index);
+	}
+}
@@ -0,0 +1,204 @@
+package com.hro.core.cloudverifyapi.utils;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * SHA-256 Merkle 树，用于批量签名
+ *
+ * 叶子 = SHA-256(0x00 || 记录 UTF-8 字节)，内部节点 = SHA-256(0x01 || 左 || 右)，前缀区分叶子与内部节点，
+ * 防止用内部节点冒充记录。某一层节点数为奇数时最后一个节点直接提升到上一层。
+ * 构建 N 条记录的树共计算 2N - 1 次摘要。
+ */
+public final class MerkleTree {
+
+	private static final byte LEAF_PREFIX = 0x00;
+	private static final byte NODE_PREFIX = 0x01;
+
+	/**
+	 * levels[0] 为叶子，最后一层只有根
+	 */
+	private final List<byte[][]> levels;
+
+	private MerkleTree(List<byte[][]> levels) {
+		this.levels = levels;
+	}
+
+	/**
+	 * @param records 至少一条
+	 * @return
+	 */
+	public static MerkleTree build(List<String> records) {
+		if (records == null || records.isEmpty()) {
+			throw new IllegalArgumentException("merkle tree needs at least one record");
+		}
+		MessageDigest digest = sha256();
+		byte[][] level = new byte[records.size()][];
+		for (int i = 0; i < level.length; i++) {
+			level[i] = leafHash(digest, records.get(i));
+		}
+		List<byte[][]> levels = new ArrayList<>();
+		levels.add(level);
+		while (level.length > 1) {
+			byte[][] parent = new byte[(level.length + 1) / 2][];
+			for (int i = 0; i < parent.length; i++) {
+				int left = i * 2;
+				parent[i] = left + 1 < level.length ? nodeHash(digest, level[left], level[left + 1]) : level[left];
+			}
+			levels.add(parent);
+			level = parent;
+		}
+		return new MerkleTree(levels);
+	}
+
+	public byte[] root() {
+		return levels.get(levels.size() - 1)[0].clone();
+	}
+
+	public int size() {
+		return levels.get(0).length;
+	}
+
+	/**
+	 * 第 index 条记录的包含证明
+	 * @param index
+	 * @return
+	 */
+	public Proof proof(int index) {
+		if (index < 0 || index >= size()) {
+			throw new IndexOutOfBoundsException("index: " + index + ", size: " + size());
+		}
+		List<byte[]> siblings = new ArrayList<>();
+		int idx = index;
+		for (int i = 0; i < levels.size() - 1; i++) {
+			byte[][] level = levels.get(i);
+			int sibling = (idx & 1) == 1 ? idx - 1 : idx + 1;
+			if (sibling < level.length) {
+				siblings.add(level[sibling]);
+			}
+			idx >>= 1;
+		}
+		return new Proof(index, size(), siblings);
+	}
+
+	/**
+	 * 由记录与证明还原根摘要
+	 * @param record
+	 * @param proof
+	 * @return 证明结构不合法时返回 null
+	 */
+	public static byte[] rootOf(String record, Proof proof) {
+		MessageDigest digest = sha256();
+		byte[] hash = leafHash(digest, record);
+		int idx = proof.index;
+		int width = proof.leafCount;
+		int used = 0;
+		while (width > 1) {
+			if ((idx & 1) == 1) {
+				if (used >= proof.siblings.size()) {
+					return null;
+				}
+				hash = nodeHash(digest, proof.siblings.get(used++), hash);
+			} else if (idx + 1 < width) {
+				if (used >= proof.siblings.size()) {
+					return null;
+				}
+				hash = nodeHash(digest, hash, proof.siblings.get(used++));
+			}
+			idx >>= 1;
+			width = (width + 1) / 2;
+		}
+		return used == proof.siblings.size() ? hash : null;
+	}
+
+	private static byte[] leafHash(MessageDigest digest, String record) {
+		digest.update(LEAF_PREFIX);
+		return digest.digest(record.getBytes(StandardCharsets.UTF_8));
+	}
+
+	private static byte[] nodeHash(MessageDigest digest, byte[] left, byte[] right) {
+		digest.update(NODE_PREFIX);
+		digest.update(left);
+		return digest.digest(right);
+	}
+
+	private static MessageDigest sha256() {
+		try {
+			return MessageDigest.getInstance("SHA-256");
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	/**
+	 * 包含证明：记录序号、记录总数与自底向上的兄弟节点摘要，每层的左右位置由序号与总数推出
+	 */
+	public static final class Proof {
+
+		private final int index;
+		private final int leafCount;
+		private final List<byte[]> siblings;
+
+		public Proof(int index, int leafCount, List<byte[]> siblings) {
+			if (index < 0 || index >= leafCount) {
+				throw new IllegalArgumentException("index: " + index + ", leaf count: " + leafCount);
+			}
+			this.index = index;
+			this.leafCount = leafCount;
+			this.siblings = Collections.unmodifiableList(new ArrayList<>(siblings));
+		}
+
+		public int getIndex() {
+			return index;
+		}
+
+		public int getLeafCount() {
+			return leafCount;
+		}
+
+		public List<byte[]> getSiblings() {
+			return siblings;
+		}
+
+		/**
+		 * 编码为字符串 index.leafCount.兄弟摘要(URL 安全 Base64)...，便于与记录一起存储
+		 * @return
+		 */
+		public String encode() {
+			StringBuilder sb = new StringBuilder().append(index).append('.').append(leafCount);
+			Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+			for (byte[] sibling : siblings) {
+				sb.append('.').append(encoder.encodeToString(sibling));
+			}
+			return sb.toString();
+		}
+
+		/**
+		 * @param encoded {@link #encode()} 的结果
+		 * @return
+		 * @throws IllegalArgumentException 格式错误
+		 */
+		public static Proof decode(String encoded) {
+			String[] parts = encoded.split("\\.", -1);
+			if (parts.length < 2) {
+				throw new IllegalArgumentException("invalid merkle proof: " + encoded);
+			}
+			List<byte[]> siblings = new ArrayList<>(parts.length - 2);
+			Base64.Decoder decoder = Base64.getUrlDecoder();
+			for (int i = 2; i < parts.length; i++) {
+				siblings.add(decoder.decode(parts[i]));
+			}
+			return new Proof(Integer.parseInt(parts[0]), Integer.parseInt(parts[1]), siblings);
+		}
+
+		@Override
+		public String toString() {
+			return encode();
+		}
+	}
+}
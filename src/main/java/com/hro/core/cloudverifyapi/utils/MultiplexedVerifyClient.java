@@ -0,0 +1,197 @@
+package com.hro.core.cloudverifyapi.utils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hro.core.cloudverifyapi.enums.ResultCodeEnum;
+import com.hro.core.cloudverifyapi.jwt.JwtResult;
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
+import okhttp3.FormBody;
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * verify-api 远程校验客户端，默认使用明文 HTTP/2(h2c，prior knowledge)
+ *
+ * 所有请求复用到同一个 verify-api 实例的一条连接，每个请求是连接上的一个 stream，
+ * 并发超过服务端 verify.http2.max-concurrent-streams 时才会新建连接。服务端需开启 verify.http2.h2c-enabled，
+ * 未开启时以 h2c=false 构造，退化为 HTTP/1.1 keep-alive 连接池。
+ * 基于 OkHttp(pom 中为 optional 依赖，调用方需自行引入)。
+ *
+ * 实例线程安全，应用内每个 verify-api 地址共享一个即可，不再使用时调用 {@link #close()}。
+ */
+public class MultiplexedVerifyClient implements Closeable {
+
+	private static Logger logger = LoggerFactory.getLogger(MultiplexedVerifyClient.class);
+
+	private static final ObjectMapper MAPPER = new ObjectMapper();
+
+	private static final MediaType BINARY = MediaType.get(VerifyBinaryCodec.CONTENT_TYPE);
+
+	private final String baseUrl;
+	private final boolean h2c;
+	private final OkHttpClient client;
+
+	/**
+	 * @param baseUrl verify-api 地址，如 http://127.0.0.1:8086
+	 */
+	public MultiplexedVerifyClient(String baseUrl) {
+		this(baseUrl, true, 256, 1000, 3000);
+	}
+
+	/**
+	 * @param baseUrl verify-api 地址，只支持 http
+	 * @param h2c false 时使用 HTTP/1.1 keep-alive
+	 * @param maxConcurrentRequests 异步请求并发上限；HTTP/1.1 下同时是保留的空闲连接数
+	 * @param connectTimeoutMillis
+	 * @param readTimeoutMillis
+	 */
+	public MultiplexedVerifyClient(String baseUrl, boolean h2c, int maxConcurrentRequests,
+								   int connectTimeoutMillis, int readTimeoutMillis) {
+		this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+		this.h2c = h2c;
+		Dispatcher dispatcher = new Dispatcher();
+		// 默认每个主机最多 5 个异步请求，多路复用时并发受服务端 stream 上限约束即可
+		dispatcher.setMaxRequests(maxConcurrentRequests);
+		dispatcher.setMaxRequestsPerHost(maxConcurrentRequests);
+		this.client = new OkHttpClient.Builder()
+				.protocols(Collections.singletonList(h2c ? Protocol.H2_PRIOR_KNOWLEDGE : Protocol.HTTP_1_1))
+				.dispatcher(dispatcher)
+				.connectionPool(new ConnectionPool(h2c ? 1 : maxConcurrentRequests, 5, TimeUnit.MINUTES))
+				.connectTimeout(connectTimeoutMillis, TimeUnit.MILLISECONDS)
+				.readTimeout(readTimeoutMillis, TimeUnit.MILLISECONDS)
+				.writeTimeout(readTimeoutMillis, TimeUnit.MILLISECONDS)
+				.retryOnConnectionFailure(true)
+				.build();
+	}
+
+	/**
+	 * 校验Token，同 POST /verify/token
+	 * @param token
+	 * @return JwtResult，请求失败时 code 为 FAILURE
+	 */
+	public JwtResult verify(String token) {
+		try (Response response = client.newCall(tokenRequest(token)).execute()) {
+			return readResult(response);
+		} catch (Exception e) {
+			logger.error("verify error, url: {}", baseUrl, e);
+			return failure();
+		}
+	}
+
+	/**
+	 * 异步校验Token，不占用调用线程，同一连接上并发的请求以 stream 复用
+	 * @param token
+	 * @return 请求失败时以 code 为 FAILURE 的结果完成，不会异常完成
+	 */
+	public CompletableFuture<JwtResult> verifyAsync(String token) {
+		CompletableFuture<JwtResult> future = new CompletableFuture<>();
+		client.newCall(tokenRequest(token)).enqueue(new Callback() {
+			@Override
+			public void onFailure(Call call, IOException e) {
+				logger.error("verify error, url: {}", baseUrl, e);
+				future.complete(failure());
+			}
+
+			@Override
+			public void onResponse(Call call, Response response) {
+				try (Response r = response) {
+					future.complete(readResult(r));
+				} catch (Exception e) {
+					logger.error("verify error, url: {}", baseUrl, e);
+					future.complete(failure());
+				}
+			}
+		});
+		return future;
+	}
+
+	/**
+	 * 批量校验Token，同 POST /verify/binary，格式见 {@link VerifyBinaryCodec}
+	 * @param tokens
+	 * @return 与 tokens 一一对应
+	 * @throws IOException 请求失败或响应格式错误
+	 */
+	public List<JwtResult> verifyBinary(List<String> tokens) throws IOException {
+		Request request = new Request.Builder()
+				.url(baseUrl + "/verify/binary")
+				.post(RequestBody.create(BINARY, VerifyBinaryCodec.encodeRequest(tokens)))
+				.build();
+		try (Response response = client.newCall(request).execute()) {
+			if (!response.isSuccessful()) {
+				throw new IOException("binary verify failed, http status: " + response.code());
+			}
+			try {
+				return VerifyBinaryCodec.decodeResults(body(response).bytes());
+			} catch (IllegalArgumentException e) {
+				throw new IOException(e.getMessage(), e);
+			}
+		}
+	}
+
+	/**
+	 * @return 是否使用 h2c
+	 */
+	public boolean isH2c() {
+		return h2c;
+	}
+
+	/**
+	 * @return 当前保持的连接数(含空闲)
+	 */
+	public int connectionCount() {
+		return client.connectionPool().connectionCount();
+	}
+
+	/**
+	 * 关闭连接与异步请求线程
+	 */
+	@Override
+	public void close() {
+		client.dispatcher().executorService().shutdown();
+		client.connectionPool().evictAll();
+	}
+
+	private Request tokenRequest(String token) {
+		return new Request.Builder()
+				.url(baseUrl + JwtClientVerifier.VERIFY_PATH)
+				.header("Accept", "application/json")
+				.post(new FormBody.Builder().add("token", token).build())
+				.build();
+	}
+
+	private JwtResult readResult(Response response) throws IOException {
+		if (!response.isSuccessful()) {
+			logger.warn("verify failed, url: {}, http status: {}", baseUrl, response.code());
+			return failure();
+		}
+		return MAPPER.readValue(body(response).byteStream(), JwtResult.class);
+	}
+
+	private static ResponseBody body(Response response) throws IOException {
+		ResponseBody body = response.body();
+		if (body == null) {
+			throw new IOException("empty response body");
+		}
+		return body;
+	}
+
+	private static JwtResult failure() {
+		return new JwtResult(false, null, ResultCodeEnum.FAILURE.getDesc(), ResultCodeEnum.FAILURE.getCode());
+	}
+}
@@ -5,6 +5,8 @@ import org.slf4j.LoggerFactory;
 
 import javax.crypto.Cipher;
 import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
 import java.security.KeyFactory;
 import java.security.PublicKey;
 import java.security.spec.RSAPublicKeySpec;
@@ -33,8 +35,6 @@ public class RsaClientUtil {
 	private static final String PUBLIC_MODULUS = "MTAwOTI0MzMxODM1NzI1OTM1Mjk2NzUwNjcxNjAwODAyODk5MTkwMTUzODUzNDIyMzI3NjQ3MDI1NjQ2NDA2ODYxNDcyNTI5ODE3MzY5NTUwMzMxMTY3NTMzODY4MjAzNDczNDE5MDk2OTE4Mjc2MDQ2MzYyMTkzNzU0OTgzOTgwNzE4MzQwOTkwNjM0ODgzMTYwODkyOTg3OTY5MDU3NDkyOTIwNzExMjQyNzQxMjEwMDI2NTEwMjQwNTU0NjQzNTQxMDM2MDUwNTExNzE0NDQ2NDczNTE0NTEyNzQ3NDk4NDI2NTQ0ODg3MzMyMDMwMzQyNDg0OTAxODkzNTMzNDMyNDQ1NDk0OTk1MDY5MjI4Mjg3OTg3NTQ1OTk2NzI0MDg3Njg2NjYxMTkzNzc3NjkzMjcx";
 	private static final String PUBLIC_EXPONENT = "NjU1Mzc=";
 
-	private static PublicKey pubKey = null;
-
 	private static Logger logger = LoggerFactory.getLogger(RsaClientUtil.class);
 
 	/**
@@ -72,7 +72,7 @@ public class RsaClientUtil {
 			cipher.init(Cipher.ENCRYPT_MODE, pubKey);
 			return cipher.doFinal(data);
 		} catch (Exception e) {
-			e.printStackTrace();
+			logger.error("======error======", e);
 			return null;
 		}
 	}
@@ -87,18 +87,10 @@ public class RsaClientUtil {
 		try {
 			byte[] data = dataStr.getBytes("UTF-8");
 			Cipher cipher = Cipher.getInstance(KEY_ALGORITHM);
-
-			if(pubKey == null) {
-				//1.根据 N、E、D值还原 公钥
-				String modulus_str = new String(Base64.getDecoder().decode(PUBLIC_MODULUS.getBytes("UTF-8")));
-				String exponent_str = new String(Base64.getDecoder().decode(PUBLIC_EXPONENT.getBytes("UTF-8")));
-				pubKey =  RsaClientUtil.restorePublicKey(modulus_str, exponent_str);
-			}
-
-			cipher.init(Cipher.ENCRYPT_MODE, pubKey);
+			cipher.init(Cipher.ENCRYPT_MODE, DefaultKeyHolder.PUB_KEY);
 			return cipher.doFinal(data);
 		} catch (Exception e) {
-			e.printStackTrace();
+			logger.error("======error======", e);
 			return null;
 		}
 	}
@@ -116,20 +108,49 @@ public class RsaClientUtil {
 			BigInteger bigIntPublicExponent = new BigInteger(publicExponent);
 			RSAPublicKeySpec keySpec = new RSAPublicKeySpec(bigIntModulus, bigIntPublicExponent);
 			KeyFactory keyFactory = KeyFactory.getInstance(KEY_ALGORITHM);
-			pubKey = keyFactory.generatePublic(keySpec);
+			return keyFactory.generatePublic(keySpec);
 		} catch (Exception e) {
-			e.printStackTrace();
+			logger.error("======error======", e);
 		}
-		return pubKey;
+		return null;
+	}
+
+	/**
+	 * 根据 JWK 中的 n、e 值(URL 安全的 Base64，无符号大端) 还原公钥，不影响默认公钥
+	 *
+	 * @param n
+	 * @param e
+	 * @return
+	 * @throws GeneralSecurityException
+	 */
+	public static PublicKey restoreJwkPublicKey(String n, String e) throws GeneralSecurityException {
+		BigInteger modulus = new BigInteger(1, Base64.getUrlDecoder().decode(n));
+		BigInteger publicExponent = new BigInteger(1, Base64.getUrlDecoder().decode(e));
+		KeyFactory keyFactory = KeyFactory.getInstance(KEY_ALGORITHM);
+		return keyFactory.generatePublic(new RSAPublicKeySpec(modulus, publicExponent));
 	}
 
 	public static void main(String[] args) {
 		try {
     		byte[] encryData = RsaClientUtil.encryptData("sperms:20190909114532");
 			String baseEncryData = Base64.getEncoder().encodeToString(encryData);
-			logger.info("baseEncryData="+ baseEncryData  );
+			logger.info("baseEncryData={}", baseEncryData);
 		} catch (Exception e) {
-			e.printStackTrace();
+			logger.error("======error======", e);
+		}
+	}
+
+	/**
+	 * 默认公钥，首次使用时由类初始化完成还原并安全发布；restorePublicKey 还原其他公钥不会影响它
+	 */
+	private static class DefaultKeyHolder {
+		private static final PublicKey PUB_KEY;
+
+		static {
+			//1.根据 N、E、D值还原 公钥
+			String modulus_str = new String(Base64.getDecoder().decode(PUBLIC_MODULUS), StandardCharsets.UTF_8);
+			String exponent_str = new String(Base64.getDecoder().decode(PUBLIC_EXPONENT), StandardCharsets.UTF_8);
+			PUB_KEY = restorePublicKey(modulus_str, exponent_str);
 		}
 	}
 }
@@ -1,19 +1,24 @@
 package com.hro.core.cloudverifyapi.utils;
 
+import com.hro.core.cloudverifyapi.jwt.CryptoProfile;
 import org.bouncycastle.util.encoders.UrlBase64;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.crypto.Cipher;
 import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
 import java.security.*;
 import java.security.interfaces.RSAPrivateKey;
 import java.security.interfaces.RSAPublicKey;
 import java.security.spec.RSAPrivateKeySpec;
 import java.security.spec.RSAPublicKeySpec;
 import java.security.spec.X509EncodedKeySpec;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Base64;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -41,9 +46,31 @@ public class RsaUtil {
 	public static final String ENCODING = "utf-8";
 	public static final String X509 = "X.509";
 
+	/**
+	 * 批量签名时对根签名的数据前缀，避免根签名被当作普通内容的签名使用
+	 */
+	private static final byte[] MERKLE_ROOT_PREFIX = "merkle-sha256:".getBytes(StandardCharsets.US_ASCII);
+
 	private static final String PRIVATE_MODULUS = "MTAwOTI0MzMxODM1NzI1OTM1Mjk2NzUwNjcxNjAwODAyODk5MTkwMTUzODUzNDIyMzI3NjQ3MDI1NjQ2NDA2ODYxNDcyNTI5ODE3MzY5NTUwMzMxMTY3NTMzODY4MjAzNDczNDE5MDk2OTE4Mjc2MDQ2MzYyMTkzNzU0OTgzOTgwNzE4MzQwOTkwNjM0ODgzMTYwODkyOTg3OTY5MDU3NDkyOTIwNzExMjQyNzQxMjEwMDI2NTEwMjQwNTU0NjQzNTQxMDM2MDUwNTExNzE0NDQ2NDczNTE0NTEyNzQ3NDk4NDI2NTQ0ODg3MzMyMDMwMzQyNDg0OTAxODkzNTMzNDMyNDQ1NDk0OTk1MDY5MjI4Mjg3OTg3NTQ1OTk2NzI0MDg3Njg2NjYxMTkzNzc3NjkzMjcx";
 	private static final String PRIVATE_EXPONENT = "NTIzNzcxMDU2NzE1NTUxNTk4NTM0MTIzMjk1NjE3MjA5ODUyMDMwOTkyMDkwMzYxMjAxNzUzMzA1MTk5NDQzMDg5MDAzNzIwNjY4OTkyMDQyMDMxNzc5MDE5Nzc4OTU0ODcwOTc4Mjc1NTM2NjI4OTEwMjE0MjIwMDU4MDYxMTE4NDgxNTAxMTAyMTk3Nzg4NDM1Mjc5NjU5NzQ5MTcyNjcwMzUzOTgxMTc3NzI2MjQxMDg0ODQxNTYxNTA5MjI4MTU1NjQwNzQyMzE5NDk1MDAxNTQ1MDM5MTUwNTkzMjk1Mjk4NTI4NjEyMDk5MjgyODgxOTYxNjA4OTQ3ODUzOTU3NzY1NTg3NTkyMjI4ODQ3NDU0Njg3Njc2OTk2MDkzODIyMDIxMjYyMjAyMzY2ODk0NzM=";
 	private static Logger logger = LoggerFactory.getLogger(RsaUtil.class);
+	/**
+	 * 密钥材料专用日志，logback.xml 中默认 OFF，关闭时不会计算任何模数/指数字符串
+	 */
+	public static final Logger KEY_LOGGER = LoggerFactory.getLogger("com.hro.core.cloudverifyapi.keys");
+
+	/**
+	 * 当前生效的加解密参数，由 CryptoProfileConfig 在启动和 refresh 时整体替换
+	 */
+	private static volatile CryptoProfile profile = CryptoProfile.DEFAULT;
+
+	public static CryptoProfile getProfile() {
+		return profile;
+	}
+
+	public static void applyProfile(CryptoProfile cryptoProfile) {
+		profile = cryptoProfile;
+	}
     
     /**
      * 获得公钥---base64格式
@@ -55,11 +82,12 @@ public class RsaUtil {
     public static String getPublicKeyBase64(Map<String, Object> keyMap) throws Exception {
         //获得map中的公钥对象 转为key对象
     	RSAPublicKey key = (RSAPublicKey) keyMap.get(PUBLIC_KEY);
-    	logger.info("public modulus ="+ key.getModulus() + " exponent ="+ key.getPublicExponent());
-
-    	String base64_modulus = RsaUtil.encryptBASE64(StringUtils.toString(key.getModulus()).getBytes("UTF-8"));
-		String base64_exponent = RsaUtil.encryptBASE64(StringUtils.toString(key.getPublicExponent()).getBytes("UTF-8"));
-		logger.info("Base64 public modulus ="+ base64_modulus + " exponent ="+ base64_exponent);
+    	if (KEY_LOGGER.isDebugEnabled()) {
+    		KEY_LOGGER.debug("public modulus ={} exponent ={}", key.getModulus(), key.getPublicExponent());
+    		String base64_modulus = RsaUtil.encryptBASE64(StringUtils.toString(key.getModulus()).getBytes("UTF-8"));
+    		String base64_exponent = RsaUtil.encryptBASE64(StringUtils.toString(key.getPublicExponent()).getBytes("UTF-8"));
+    		KEY_LOGGER.debug("Base64 public modulus ={} exponent ={}", base64_modulus, base64_exponent);
+    	}
         //编码返回字符串
         return encryptBASE64(key.getEncoded());
     }
@@ -74,11 +102,12 @@ public class RsaUtil {
 	public static String getPublicKeyHex(Map<String, Object> keyMap) throws Exception {
 		//获得map中的公钥对象 转为key对象
 		RSAPublicKey key = (RSAPublicKey) keyMap.get(PUBLIC_KEY);
-		logger.info("public modulus ="+ key.getModulus() + " exponent ="+ key.getPublicExponent());
-
-		String hex_modulus = StringUtils.bytesToHexString(StringUtils.toString(key.getModulus()).getBytes("UTF-8"));
-		String hex_exponent = StringUtils.bytesToHexString(StringUtils.toString(key.getPublicExponent()).getBytes("UTF-8"));
-		logger.info("Hex public modulus ="+ hex_modulus + " exponent ="+ hex_exponent);
+		if (KEY_LOGGER.isDebugEnabled()) {
+			KEY_LOGGER.debug("public modulus ={} exponent ={}", key.getModulus(), key.getPublicExponent());
+			String hex_modulus = StringUtils.bytesToHexString(StringUtils.toString(key.getModulus()).getBytes("UTF-8"));
+			String hex_exponent = StringUtils.bytesToHexString(StringUtils.toString(key.getPublicExponent()).getBytes("UTF-8"));
+			KEY_LOGGER.debug("Hex public modulus ={} exponent ={}", hex_modulus, hex_exponent);
+		}
 		//编码返回字符串
 		return StringUtils.bytesToHexString(key.getEncoded());
 	}
@@ -93,11 +122,12 @@ public class RsaUtil {
     public static String getPrivateKeyBase64(Map<String, Object> keyMap) throws Exception {
         //获得map中的私钥对象 转为key对象
     	RSAPrivateKey key = (RSAPrivateKey) keyMap.get(PRIVATE_KEY);
-    	logger.info("private modulus ="+ key.getModulus() + " exponent ="+ key.getPrivateExponent());
-
-		String base64_modulus = RsaUtil.encryptBASE64(StringUtils.toString(key.getModulus()).getBytes("UTF-8"));
-		String base64_exponent = RsaUtil.encryptBASE64(StringUtils.toString(key.getPrivateExponent()).getBytes("UTF-8"));
-		logger.info("Base64 private modulus ="+ base64_modulus + " exponent ="+ base64_exponent);
+    	if (KEY_LOGGER.isDebugEnabled()) {
+    		KEY_LOGGER.debug("private modulus ={} exponent ={}", key.getModulus(), key.getPrivateExponent());
+    		String base64_modulus = RsaUtil.encryptBASE64(StringUtils.toString(key.getModulus()).getBytes("UTF-8"));
+    		String base64_exponent = RsaUtil.encryptBASE64(StringUtils.toString(key.getPrivateExponent()).getBytes("UTF-8"));
+    		KEY_LOGGER.debug("Base64 private modulus ={} exponent ={}", base64_modulus, base64_exponent);
+    	}
         //编码返回字符串
         return encryptBASE64(key.getEncoded());
     }
@@ -112,11 +142,12 @@ public class RsaUtil {
 	public static String getPrivateKeyHex(Map<String, Object> keyMap) throws Exception {
 		//获得map中的私钥对象 转为key对象
 		RSAPrivateKey key = (RSAPrivateKey) keyMap.get(PRIVATE_KEY);
-		logger.info("private modulus ="+ key.getModulus() + " exponent ="+ key.getPrivateExponent());
-
-		String hex_modulus = StringUtils.bytesToHexString(StringUtils.toString(key.getModulus()).getBytes("UTF-8"));
-		String hex_exponent = StringUtils.bytesToHexString(StringUtils.toString(key.getPrivateExponent()).getBytes("UTF-8"));
-		logger.info("Hex private modulus ="+ hex_modulus + " exponent ="+ hex_exponent);
+		if (KEY_LOGGER.isDebugEnabled()) {
+			KEY_LOGGER.debug("private modulus ={} exponent ={}", key.getModulus(), key.getPrivateExponent());
+			String hex_modulus = StringUtils.bytesToHexString(StringUtils.toString(key.getModulus()).getBytes("UTF-8"));
+			String hex_exponent = StringUtils.bytesToHexString(StringUtils.toString(key.getPrivateExponent()).getBytes("UTF-8"));
+			KEY_LOGGER.debug("Hex private modulus ={} exponent ={}", hex_modulus, hex_exponent);
+		}
 		//编码返回字符串
 		return StringUtils.bytesToHexString(key.getEncoded());
 	}
@@ -149,9 +180,20 @@ public class RsaUtil {
      * @throws Exception
      */
     public static Map<String, Object> initKey() throws Exception {
-        //获得对象 KeyPairGenerator 参数 RSA 1024个字节
+        return initKey(profile.getKeySize());
+    }
+
+    /**
+     * map对象中存放指定长度的公私钥
+     *
+     * @param keySize 密钥长度，单位 bit
+     * @return
+     * @throws Exception
+     */
+    public static Map<String, Object> initKey(int keySize) throws Exception {
+        //获得对象 KeyPairGenerator 参数 RSA keySize 位
         KeyPairGenerator keyPairGen = KeyPairGenerator.getInstance(KEY_ALGORITHM);
-        keyPairGen.initialize(1024);
+        keyPairGen.initialize(keySize);
         //通过对象 KeyPairGenerator 获取对象KeyPair
         KeyPair keyPair = keyPairGen.generateKeyPair();
         
@@ -273,7 +315,7 @@ public class RsaUtil {
 	 */
 	public static String signByPriKey(String content, RSAPrivateKey priKey) {
 		try {
-			Signature signature = Signature.getInstance(SIGNATURE_ALGORITHM);
+			Signature signature = Signature.getInstance(profile.getSignatureAlgorithm());
 			signature.initSign(priKey);
 			signature.update(content.getBytes(ENCODING));
 			byte[] signed = signature.sign();
@@ -292,8 +334,20 @@ public class RsaUtil {
 	 * @return
 	 */
 	public static boolean verifySignByPubKey(String content, String sign, PublicKey pubKey) {
+		return verifySignByPubKey(content, sign, pubKey, profile.getSignatureAlgorithm());
+	}
+
+	/**
+	 * 按指定签名算法验签，用于校验切换签名算法之前产生的签名
+	 * @param content
+	 * @param sign
+	 * @param pubKey
+	 * @param signatureAlgorithm 签名时使用的算法，如 SHA1WithRSA
+	 * @return
+	 */
+	public static boolean verifySignByPubKey(String content, String sign, PublicKey pubKey, String signatureAlgorithm) {
 		try {
-			Signature signature = Signature.getInstance(SIGNATURE_ALGORITHM);
+			Signature signature = Signature.getInstance(signatureAlgorithm);
 			signature.initVerify(pubKey);
 			signature.update(content.getBytes(ENCODING));
 
@@ -304,6 +358,89 @@ public class RsaUtil {
 		return false;
 	}
 
+	/**
+	 * RSA私钥批量签名：记录构建 Merkle 树，只对根做一次私钥签名
+	 *
+	 * @param contents 待签名数据，至少一条，不能包含 null
+	 * @param priKey
+	 * @return 根签名与每条记录的包含证明，记录为空、含 null 或签名失败返回 null
+	 */
+	public static MerkleBatchSign signBatchByPriKey(List<String> contents, RSAPrivateKey priKey) {
+		try {
+			MerkleTree tree = MerkleTree.build(contents);
+			Signature signature = Signature.getInstance(profile.getSignatureAlgorithm());
+			signature.initSign(priKey);
+			signature.update(MERKLE_ROOT_PREFIX);
+			signature.update(tree.root());
+			String rootSign = new String(UrlBase64.encode(signature.sign()), ENCODING);
+			List<String> proofs = new ArrayList<>(tree.size());
+			for (int i = 0; i < tree.size(); i++) {
+				proofs.add(tree.proof(i).encode());
+			}
+			return new MerkleBatchSign(rootSign, proofs);
+		} catch (Exception e) {
+			logger.error("batch sign error, size: {}", contents == null ? 0 : contents.size(), e);
+		}
+		return null;
+	}
+
+	/**
+	 * 公钥校验批量签名中的单条记录
+	 * @param content
+	 * @param proof 该记录的包含证明
+	 * @param rootSign 批次的根签名
+	 * @param pubKey
+	 * @return
+	 */
+	public static boolean verifyBatchSignByPubKey(String content, String proof, String rootSign, PublicKey pubKey) {
+		return verifyBatchSignByPubKey(content, proof, rootSign, pubKey, profile.getSignatureAlgorithm());
+	}
+
+	/**
+	 * 按指定签名算法校验批量签名中的单条记录，用于校验切换签名算法之前产生的批量签名
+	 * @param content
+	 * @param proof 该记录的包含证明
+	 * @param rootSign 批次的根签名
+	 * @param pubKey
+	 * @param signatureAlgorithm 签名时使用的算法，如 SHA1WithRSA
+	 * @return
+	 */
+	public static boolean verifyBatchSignByPubKey(String content, String proof, String rootSign, PublicKey pubKey,
+			String signatureAlgorithm) {
+		try {
+			byte[] root = MerkleTree.rootOf(content, MerkleTree.Proof.decode(proof));
+			if (root == null) {
+				return false;
+			}
+			Signature signature = Signature.getInstance(signatureAlgorithm);
+			signature.initVerify(pubKey);
+			signature.update(MERKLE_ROOT_PREFIX);
+			signature.update(root);
+			return signature.verify(UrlBase64.decode(rootSign.getBytes(ENCODING)));
+		} catch (IllegalArgumentException e) {
+			// 证明格式错误属于调用方输入问题
+			logger.warn("invalid batch sign proof: {}", e.getMessage());
+		} catch (Exception e) {
+			logger.error("verify batch sign error, proof: {}", proof, e);
+		}
+		return false;
+	}
+
+	/**
+	 * 计算公钥的 kid(key id)：公钥 X.509 编码的 SHA-256 摘要，取前 16 字节做 URL 安全的 Base64
+	 *
+	 * @param pubKey
+	 * @return
+	 */
+	public static String keyId(PublicKey pubKey) {
+		try {
+			byte[] digest = MessageDigest.getInstance("SHA-256").digest(pubKey.getEncoded());
+			return Base64.getUrlEncoder().withoutPadding().encodeToString(Arrays.copyOf(digest, 16));
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
     public static void testBase64() {
 		try {
 			// 以下逻辑用于生成 公钥和私钥，便于理解RSA 的工作原理(没问题的)
@@ -322,8 +459,8 @@ public class RsaUtil {
 			//--解密数据
 			String decryDatas = new String(RsaUtil.decryptData(Base64.getDecoder().decode(encryDatas), priKey));
 
-			logger.info("public Key = "+ publicKey  +", private Key = " + privateKey);
-			logger.info("clientData = "+ clientData +", encryDatas = "+ encryDatas +", decryDatas = " + decryDatas);
+			KEY_LOGGER.debug("public Key = {}, private Key = {}", publicKey, privateKey);
+			logger.info("clientData = {}, encryDatas = {}, decryDatas = {}", clientData, encryDatas, decryDatas);
 
 			//3.根据 N、E、D值还原 公钥+私钥 对
 			PrivateKey priKey2 = RsaUtil.restorePrivateKey(String.valueOf(priKey.getModulus()), String.valueOf(priKey.getPrivateExponent()));
@@ -332,7 +469,8 @@ public class RsaUtil {
 			String publicKey2 = RsaUtil.encryptBASE64(RsaUtil.restorePublicKey(String.valueOf(pubKey.getModulus()), String.valueOf(pubKey.getPublicExponent())).getEncoded());
 			String privateKey2 = RsaUtil.encryptBASE64(RsaUtil.restorePrivateKey(String.valueOf(priKey.getModulus()), String.valueOf(priKey.getPrivateExponent())).getEncoded());
 
-			logger.info("public Key2 = "+ publicKey2  +", private Key2 = " + privateKey2 +", decryDatas2 = "+ decryDatas2);
+			KEY_LOGGER.debug("public Key2 = {}, private Key2 = {}", publicKey2, privateKey2);
+			logger.info("decryDatas2 = {}", decryDatas2);
 
 			String sign = signByPriKey(clientData, priKey);
 			boolean verifySign = verifySignByPubKey(clientData, sign, pubKey);
@@ -340,7 +478,7 @@ public class RsaUtil {
 			logger.info("sign = {}, verify = {}", sign, verifySign);
 
 		} catch (Exception e) {
-			e.printStackTrace();
+			logger.error("======error======", e);
 		}
 	}
 
@@ -362,8 +500,8 @@ public class RsaUtil {
 			//--解密数据
 			String decryDatas = new String(RsaUtil.decryptData(StringUtils.hexStringToBytes(encryDatas), priKey));
 
-			logger.info("public Key = "+ publicKey  +", private Key = " + privateKey);
-			logger.info("clientData = "+ clientData +", encryDatas = "+ encryDatas +", decryDatas = " + decryDatas);
+			KEY_LOGGER.debug("public Key = {}, private Key = {}", publicKey, privateKey);
+			logger.info("clientData = {}, encryDatas = {}, decryDatas = {}", clientData, encryDatas, decryDatas);
 
 			//3.根据 N、E、D值还原 公钥+私钥 对
 //    		PublicKey pubKey2 =  RsaUtil.restorePublicKey(String.valueOf(pubKey.getModulus()), String.valueOf(pubKey.getPublicExponent()));
@@ -373,7 +511,8 @@ public class RsaUtil {
 			String publicKey2 = StringUtils.bytesToHexString(RsaUtil.restorePublicKey(String.valueOf(pubKey.getModulus()), String.valueOf(pubKey.getPublicExponent())).getEncoded());
 			String privateKey2 = StringUtils.bytesToHexString(RsaUtil.restorePrivateKey(String.valueOf(priKey.getModulus()), String.valueOf(priKey.getPrivateExponent())).getEncoded());
 
-			logger.info("public Key2 = "+ publicKey2  +", private Key2 = " + privateKey2 +", decryDatas2 = "+ decryDatas2);
+			KEY_LOGGER.debug("public Key2 = {}, private Key2 = {}", publicKey2, privateKey2);
+			logger.info("decryDatas2 = {}", decryDatas2);
 /*
 			String encryDatas = "gowN40vZ3+/NeAAzvwzwQvuhtAGr1Bx3lwSPw1jth7sbNCsDXVVUozL9bTUjFV6mekK5YFT3bmvHvpQZzeuyDfm2Urz9nIx8+yAgoo+OnaP2vmzNeJrgmhFNWNWPS8Je3RdXMzMSX38ALFMPfL03gL/WqOjQ/tSN4td6Azi2jnQ=";
 			//--解密数据
@@ -383,7 +522,7 @@ public class RsaUtil {
 */
 
 		} catch (Exception e) {
-			e.printStackTrace();
+			logger.error("======error======", e);
 		}
 	}
 
@@ -392,7 +531,7 @@ public class RsaUtil {
 		//--解密数据
 		String decryDatas = new String(RsaUtil.decryptData(Base64.getDecoder().decode(encryDatas)));
 
-		logger.info("decryDatas = "+ decryDatas);
+		logger.info("decryDatas = {}", decryDatas);
 	}
 
 	public static void main(String[] args) {
@@ -400,7 +539,7 @@ public class RsaUtil {
 			testBase64();
 //			decryBase64();
 		} catch (Exception e) {
-			e.printStackTrace();
+			logger.error("======error======", e);
 		}
 	}
 }
@@ -0,0 +1,160 @@
+package com.hro.core.cloudverifyapi.utils;
+
+import com.hro.core.cloudverifyapi.enums.ResultCodeEnum;
+import com.hro.core.cloudverifyapi.jwt.JwtResult;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Token 校验二进制协议编解码，服务端与客户端共用
+ *
+ * 请求体：1 字节版本号，之后为任意多个 [2 字节长度][token UTF-8 字节]，一次请求可以携带多个 token(pipelining)。
+ * 响应体：1 字节版本号，之后按请求顺序为每个 token 输出
+ * [1 字节 status][2 字节 ResultCodeEnum 数字码][2 字节 uid 长度][uid UTF-8 字节]，uid 为 null 时长度为 0xFFFF。
+ * msg 不在线路上传输，客户端根据状态码还原。所有整数均为大端序。
+ */
+public final class VerifyBinaryCodec {
+
+	public static final String CONTENT_TYPE = "application/x-verify-binary";
+
+	public static final byte VERSION = 1;
+
+	private static final int MAX_FIELD_LENGTH = 0xFFFE;
+	private static final int NULL_LENGTH = 0xFFFF;
+
+	private VerifyBinaryCodec() {
+	}
+
+	/**
+	 * 客户端：编码待校验的 token 列表
+	 * @param tokens
+	 * @return
+	 */
+	public static byte[] encodeRequest(List<String> tokens) {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream(1 + tokens.size() * 256);
+		DataOutputStream out = new DataOutputStream(bytes);
+		try {
+			out.writeByte(VERSION);
+			for (String token : tokens) {
+				writeField(out, token == null ? new byte[0] : token.getBytes(StandardCharsets.UTF_8));
+			}
+		} catch (IOException e) {
+			// ByteArrayOutputStream 不会抛出 IOException
+			throw new IllegalStateException(e);
+		}
+		return bytes.toByteArray();
+	}
+
+	/**
+	 * 服务端：解码请求中的 token 列表
+	 * @param body
+	 * @return
+	 * @throws IllegalArgumentException 请求体格式错误
+	 */
+	public static List<String> decodeRequest(byte[] body) {
+		ByteBuffer buffer = ByteBuffer.wrap(body);
+		checkVersion(buffer);
+		List<String> tokens = new ArrayList<>();
+		try {
+			while (buffer.hasRemaining()) {
+				int length = buffer.getShort() & 0xFFFF;
+				tokens.add(readString(buffer, length));
+			}
+		} catch (BufferUnderflowException e) {
+			throw new IllegalArgumentException("truncated verify request, decoded tokens: " + tokens.size());
+		}
+		return tokens;
+	}
+
+	/**
+	 * 服务端：把校验结果按请求顺序写入输出流
+	 * @param results
+	 * @param outputStream
+	 * @throws IOException
+	 */
+	public static void encodeResults(List<JwtResult> results, OutputStream outputStream) throws IOException {
+		DataOutputStream out = new DataOutputStream(outputStream);
+		out.writeByte(VERSION);
+		for (JwtResult result : results) {
+			out.writeByte(result.isStatus() ? 1 : 0);
+			out.writeShort(ResultCodeEnum.getResult(result.getCode()).getNumber());
+			if (result.getUid() == null) {
+				out.writeShort(NULL_LENGTH);
+			} else {
+				writeField(out, result.getUid().getBytes(StandardCharsets.UTF_8));
+			}
+		}
+		out.flush();
+	}
+
+	/**
+	 * 客户端：解码响应中的校验结果
+	 * @param body
+	 * @return
+	 * @throws IllegalArgumentException 响应体格式错误
+	 */
+	public static List<JwtResult> decodeResults(byte[] body) {
+		ByteBuffer buffer = ByteBuffer.wrap(body);
+		checkVersion(buffer);
+		List<JwtResult> results = new ArrayList<>();
+		try {
+			while (buffer.hasRemaining()) {
+				boolean status = buffer.get() == 1;
+				ResultCodeEnum codeEnum = ResultCodeEnum.getResult((int) buffer.getShort());
+				int length = buffer.getShort() & 0xFFFF;
+				String uid = length == NULL_LENGTH ? null : readString(buffer, length);
+				results.add(new JwtResult(status, uid, messageOf(codeEnum), codeEnum.getCode()));
+			}
+		} catch (BufferUnderflowException e) {
+			throw new IllegalArgumentException("truncated verify response, decoded results: " + results.size());
+		}
+		return results;
+	}
+
+	/**
+	 * 还原与 JwtManager.checkToken 一致的 msg
+	 */
+	private static String messageOf(ResultCodeEnum codeEnum) {
+		switch (codeEnum) {
+			case SUCCESS:
+				return JwtResult.MSG_SUCCESS;
+			case TOKEN_TIMEOUT:
+				return JwtResult.MSG_TIMEOUT;
+			case TOKEN_UNVALIDATE:
+				return JwtResult.MSG_UNVALIDATE;
+			default:
+				return codeEnum.getDesc();
+		}
+	}
+
+	private static void checkVersion(ByteBuffer buffer) {
+		if (!buffer.hasRemaining() || buffer.get() != VERSION) {
+			throw new IllegalArgumentException("unsupported verify protocol version");
+		}
+	}
+
+	private static void writeField(DataOutputStream out, byte[] bytes) throws IOException {
+		if (bytes.length > MAX_FIELD_LENGTH) {
+			throw new IllegalArgumentException("field too long: " + bytes.length);
+		}
+		out.writeShort(bytes.length);
+		out.write(bytes);
+	}
+
+	private static String readString(ByteBuffer buffer, int length) {
+		if (buffer.remaining() < length) {
+			throw new BufferUnderflowException();
+		}
+		String value = new String(buffer.array(), buffer.arrayOffset() + buffer.position(), length, StandardCharsets.UTF_8);
+		buffer.position(buffer.position() + length);
+		return value;
+	}
+}
@@ -0,0 +1,143 @@
+package com.hro.core.cloudverifyapi.jwt;
+
+import com.hro.core.cloudverifyapi.enums.ResultCodeEnum;
+import com.hro.core.cloudverifyapi.utils.MerkleBatchSign;
+import com.hro.core.cloudverifyapi.utils.RsaUtil;
+import io.jsonwebtoken.SignatureAlgorithm;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.security.interfaces.RSAPrivateKey;
+import java.security.interfaces.RSAPublicKey;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class JwtManagerTests {
+
+    @AfterEach
+    void restoreDefaultProfile() throws Exception {
+        JwtManager.beforeRecordExpiry = null;
+        JwtManager.applyProfile(CryptoProfile.DEFAULT);
+    }
+
+    @Test
+    void tokensSurviveRepeatedRotationAndAlgorithmSwitch() throws Exception {
+        JwtManager.applyProfile(new CryptoProfile("RSA", 512, "SHA1WithRSA", SignatureAlgorithm.RS256, 60));
+        String first = JwtManager.getToken("u1", 60);
+        String firstKid = JwtManager.getInstance().getKeyId();
+        JwtManager.applyProfile(new CryptoProfile("RSA", 768, "SHA1WithRSA", SignatureAlgorithm.RS256, 60));
+        String second = JwtManager.getToken("u2", 60);
+        String secondKid = JwtManager.getInstance().getKeyId();
+        // 只切换算法同样轮换密钥
+        JwtManager.applyProfile(new CryptoProfile("RSA", 768, "SHA256WithRSA", SignatureAlgorithm.RS512, 60));
+        String third = JwtManager.getToken("u3", 60);
+
+        JwtManager manager = JwtManager.getInstance();
+        assertEquals("u1", manager.checkToken(first).getUid());
+        assertEquals("u2", manager.checkToken(second).getUid());
+        assertEquals("u3", manager.checkToken(third).getUid());
+
+        Map<String, VerificationKey> keys = manager.getVerificationKeys();
+        assertEquals(manager.getKeyId(), keys.keySet().iterator().next());
+        assertEquals(SignatureAlgorithm.RS512, keys.get(manager.getKeyId()).getJwtAlgorithm());
+        assertEquals(SignatureAlgorithm.RS256, keys.get(firstKid).getJwtAlgorithm());
+        assertEquals("SHA1WithRSA", keys.get(secondKid).getSignatureAlgorithm());
+    }
+
+    @Test
+    void retiredKeyWithoutLiveTokensIsDropped() throws Exception {
+        JwtManager.applyProfile(new CryptoProfile("RSA", 512, "SHA1WithRSA", SignatureAlgorithm.RS256, 60));
+        String expired = JwtManager.getToken("u1", -60);
+        String retiredKid = JwtManager.getInstance().getKeyId();
+        JwtManager.applyProfile(new CryptoProfile("RSA", 768, "SHA1WithRSA", SignatureAlgorithm.RS256, 60));
+
+        JwtManager manager = JwtManager.getInstance();
+        assertFalse(manager.getVerificationKeys().containsKey(retiredKid));
+        assertEquals(ResultCodeEnum.TOKEN_UNVALIDATE.getCode(), manager.checkToken(expired).getCode());
+    }
+
+    @Test
+    void rejectsAlgorithmOtherThanTheKeys() throws Exception {
+        JwtManager.applyProfile(new CryptoProfile("RSA", 512, "SHA1WithRSA", SignatureAlgorithm.RS256, 60));
+        String token = JwtManager.getToken("u1", 60);
+        String[] parts = token.split("\\.");
+        String header = new String(Base64.getUrlDecoder().decode(parts[0]), StandardCharsets.UTF_8)
+                .replace("RS256", "RS512");
+        String tampered = Base64.getUrlEncoder().withoutPadding().encodeToString(header.getBytes(StandardCharsets.UTF_8))
+                + "." + parts[1] + "." + parts[2];
+
+        JwtManager manager = JwtManager.getInstance();
+        assertTrue(manager.checkToken(token).isStatus());
+        assertFalse(manager.checkToken(tampered).isStatus());
+    }
+
+    @Test
+    void verifiesSignatureWithAlgorithmInEffectWhenSigned() throws Exception {
+        Map<String, Object> keyMap = RsaUtil.initKey(512);
+        RSAPrivateKey priKey = (RSAPrivateKey) keyMap.get(RsaUtil.PRIVATE_KEY);
+        RSAPublicKey pubKey = (RSAPublicKey) keyMap.get(RsaUtil.PUBLIC_KEY);
+        JwtManager.applyProfile(new CryptoProfile("RSA", 512, "SHA1WithRSA", SignatureAlgorithm.RS256, 60));
+        String sign = RsaUtil.signByPriKey("content", priKey);
+
+        JwtManager.applyProfile(new CryptoProfile("RSA", 512, "SHA256WithRSA", SignatureAlgorithm.RS256, 60));
+        assertFalse(RsaUtil.verifySignByPubKey("content", sign, pubKey));
+        assertTrue(RsaUtil.verifySignByPubKey("content", sign, pubKey, "SHA1WithRSA"));
+    }
+
+    @Test
+    void verifiesBatchSignatureWithKeysAlgorithm() throws Exception {
+        Map<String, Object> keyMap = RsaUtil.initKey(512);
+        RSAPrivateKey priKey = (RSAPrivateKey) keyMap.get(RsaUtil.PRIVATE_KEY);
+        RSAPublicKey pubKey = (RSAPublicKey) keyMap.get(RsaUtil.PUBLIC_KEY);
+        JwtManager.applyProfile(new CryptoProfile("RSA", 512, "SHA1WithRSA", SignatureAlgorithm.RS256, 60));
+        MerkleBatchSign batch = RsaUtil.signBatchByPriKey(Arrays.asList("r0", "r1", "r2"), priKey);
+        VerificationKey key = new VerificationKey("kid", pubKey, SignatureAlgorithm.RS256, "SHA1WithRSA");
+
+        JwtManager.applyProfile(new CryptoProfile("RSA", 512, "SHA256WithRSA", SignatureAlgorithm.RS256, 60));
+        assertTrue(key.verifyBatchSign("r2", batch.getProof(2), batch.getRootSign()));
+        assertFalse(key.verifyBatchSign("r1", batch.getProof(2), batch.getRootSign()));
+    }
+
+    @Test
+    void tokenIssuedAcrossRotationStaysValid() throws Exception {
+        JwtManager.applyProfile(new CryptoProfile("RSA", 512, "SHA1WithRSA", SignatureAlgorithm.RS256, 60));
+        rotateBeforeRecord(1);
+        String token = JwtManager.getToken("u1", 60);
+        assertTrue(JwtManager.getInstance().checkToken(token).isStatus());
+    }
+
+    @Test
+    void tokenIssuedAcrossTwoRotationsStaysValid() throws Exception {
+        JwtManager.applyProfile(new CryptoProfile("RSA", 512, "SHA1WithRSA", SignatureAlgorithm.RS256, 60));
+        rotateBeforeRecord(2);
+        String token = JwtManager.getToken("u1", 60);
+        assertTrue(JwtManager.getInstance().checkToken(token).isStatus());
+    }
+
+    /**
+     * 签发读取 state 之后、记录过期时间之前轮换 rotations 次
+     */
+    private static void rotateBeforeRecord(int rotations) {
+        AtomicBoolean done = new AtomicBoolean();
+        JwtManager.beforeRecordExpiry = () -> {
+            if (!done.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                for (int i = 0; i < rotations; i++) {
+                    JwtManager.applyProfile(new CryptoProfile("RSA", 512 + 256 * ((i + 1) % 2), "SHA1WithRSA",
+                            SignatureAlgorithm.RS256, 60));
+                }
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        };
+    }
+}
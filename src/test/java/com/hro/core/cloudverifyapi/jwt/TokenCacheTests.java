@@ -0,0 +1,114 @@
+package com.hro.core.cloudverifyapi.jwt;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+class TokenCacheTests {
+
+    private final AtomicInteger signatures = new AtomicInteger();
+
+    private volatile String kid = "kid-1";
+
+    private volatile long signMillis;
+
+    private final TokenCache cache = new TokenCache((uid, exp) -> {
+        sleep(signMillis);
+        return uid + "-" + exp + "-" + signatures.incrementAndGet();
+    }, () -> kid);
+
+    @Test
+    void reusesTokenPerUidAndTtl() {
+        String token = cache.get("svc", 60);
+        assertEquals(token, cache.get("svc", 60));
+        assertNotEquals(token, cache.get("svc", 120));
+        assertNotEquals(token, cache.get("other", 60));
+        assertEquals(3, signatures.get());
+    }
+
+    @Test
+    void signsOncePerUidUnderContention() throws Exception {
+        signMillis = 50;
+        int threads = 32;
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<String>> futures = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                futures.add(pool.submit(() -> {
+                    start.await();
+                    return cache.get("svc", 60);
+                }));
+            }
+            start.countDown();
+            Set<String> tokens = new HashSet<>();
+            for (Future<String> future : futures) {
+                tokens.add(future.get());
+            }
+            assertEquals(1, tokens.size());
+            assertEquals(1, signatures.get());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void refreshesAheadInBackground() {
+        // 60 秒有效期的 1% 后开始后台刷新，直到剩余 20% 前都不会同步签名，窗口足够宽，不依赖调度时机
+        cache.configure(100, 0.01, 0.2);
+        String first = cache.get("svc", 60);
+        signMillis = 200;
+        long deadline = System.currentTimeMillis() + 5000;
+        String token = first;
+        while (token.equals(first) && System.currentTimeMillis() < deadline) {
+            sleep(10);
+            token = cache.get("svc", 60);
+        }
+        assertNotEquals(first, token);
+        assertEquals(2, signatures.get());
+        assertEquals(token, cache.get("svc", 60));
+    }
+
+    @Test
+    void evictsExpiredAtMostOncePerIntervalWhenFull() {
+        cache.configure(2, 0.5, 0.2);
+        cache.get("expired-1", -1);
+        cache.get("expired-2", -1);
+        // 已满：清理过期条目后缓存
+        cache.get("svc", 60);
+        assertEquals(1, cache.size());
+        cache.get("expired-3", -1);
+        // 间隔内再次满：不再遍历，直接签名且不缓存
+        String first = cache.get("other", 60);
+        assertEquals(2, cache.size());
+        assertNotEquals(first, cache.get("other", 60));
+    }
+
+    @Test
+    void resignsAfterKeyRotation() {
+        String first = cache.get("svc", 60);
+        kid = "kid-2";
+        String second = cache.get("svc", 60);
+        assertNotEquals(first, second);
+        assertEquals(second, cache.get("svc", 60));
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,182 @@
+package com.hro.core.cloudverifyapi.loadbalancer;
+
+import com.netflix.loadbalancer.BaseLoadBalancer;
+import com.netflix.loadbalancer.Server;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.cloud.client.loadbalancer.LoadBalanced;
+import org.springframework.context.annotation.Bean;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE,
+        properties = {"eureka.client.enabled=false", "ribbon.eureka.enabled=false",
+                "verify.loadbalancer.latency-aware.enabled=true", "verify.loadbalancer.latency-aware.decay=1000",
+                "stub.ribbon.NFLoadBalancerRuleClassName=com.hro.core.cloudverifyapi.loadbalancer.LatencyAwareRule"})
+class LatencyAwareRuleTests {
+
+    private static final long SLOW_MILLIS = 80;
+
+    static {
+        // 避免 Nagle 与延迟 ACK 叠加使每个响应多出约 40ms
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+    }
+
+    private static final HttpServer FAST_1 = stubServer("fast-1", 0);
+    private static final HttpServer FAST_2 = stubServer("fast-2", 0);
+    private static final HttpServer SLOW = stubServer("slow", SLOW_MILLIS);
+
+    static {
+        // 需在 Spring 容器创建前确定实例列表
+        System.setProperty("stub.ribbon.listOfServers", String.join(",",
+                hostPort(FAST_1), hostPort(FAST_2), hostPort(SLOW)));
+    }
+
+    @Autowired
+    private RestTemplate restTemplate;
+
+    @AfterAll
+    static void stopServers() {
+        System.clearProperty("stub.ribbon.listOfServers");
+        for (HttpServer server : Arrays.asList(FAST_1, FAST_2, SLOW)) {
+            server.stop(0);
+        }
+    }
+
+    @Test
+    void slowServerLosesTraffic() {
+        ServerLatencyTracker.getInstance().reset();
+        int requests = 150;
+        Map<String, Integer> hits = new HashMap<>();
+        for (int i = 0; i < requests; i++) {
+            String name = restTemplate.getForObject("http://stub/ping", String.class);
+            hits.merge(name, 1, Integer::sum);
+        }
+        // 轮询时每个实例约 1/3
+        int slowHits = hits.getOrDefault("slow", 0);
+        assertTrue(slowHits < requests / 10, "slow server hits: " + hits);
+    }
+
+    @Test
+    void prefersServerWithFewerInFlight() {
+        ServerLatencyTracker tracker = new ServerLatencyTracker();
+        Server busy = new Server("10.0.0.1", 8086);
+        Server idle = new Server("10.0.0.2", 8086);
+        BaseLoadBalancer lb = new BaseLoadBalancer();
+        lb.addServers(Arrays.asList(busy, idle));
+        LatencyAwareRule rule = new LatencyAwareRule(tracker);
+        rule.setLoadBalancer(lb);
+
+        for (int i = 0; i < 3; i++) {
+            tracker.start(busy.getHostPort());
+        }
+        for (int i = 0; i < 20; i++) {
+            assertEquals(idle, rule.choose(null));
+        }
+    }
+
+    @Test
+    void idleSlowServerStillLoses() throws Exception {
+        ServerLatencyTracker tracker = new ServerLatencyTracker();
+        tracker.configure(50, 10);
+        Server slow = new Server("10.0.0.1", 8086);
+        Server fast = new Server("10.0.0.2", 8086);
+        BaseLoadBalancer lb = new BaseLoadBalancer();
+        lb.addServers(Arrays.asList(slow, fast));
+        LatencyAwareRule rule = new LatencyAwareRule(tracker);
+        rule.setLoadBalancer(lb);
+
+        record(tracker, slow, 500);
+        // 慢实例空闲 6 个衰减时间常数，快实例持续有流量
+        Thread.sleep(300);
+        record(tracker, fast, 2);
+        // 估计值回到 defaultRtt(10ms)附近，而不是接近 0
+        assertTrue(tracker.latencyEstimate(slow.getHostPort()) > TimeUnit.MILLISECONDS.toNanos(9),
+                "slow estimate: " + tracker.latencyEstimate(slow.getHostPort()));
+        for (int i = 0; i < 20; i++) {
+            assertEquals(fast, rule.choose(null));
+        }
+    }
+
+    @Test
+    void prunesServersRemovedFromList() {
+        ServerLatencyTracker tracker = new ServerLatencyTracker();
+        Server kept = new Server("10.0.0.1", 8086);
+        Server removed = new Server("10.0.0.2", 8086);
+        BaseLoadBalancer lb = new BaseLoadBalancer();
+        lb.addServers(Arrays.asList(kept, removed));
+        LatencyAwareRule rule = new LatencyAwareRule(tracker, 0);
+        rule.setLoadBalancer(lb);
+
+        rule.choose(null);
+        record(tracker, kept, 1);
+        record(tracker, removed, 1);
+        // 其他负载均衡器的实例不受影响
+        record(tracker, new Server("10.0.0.9", 8086), 1);
+        assertEquals(3, tracker.size());
+
+        lb.setServersList(Collections.singletonList(kept));
+        assertEquals(kept, rule.choose(null));
+        assertEquals(2, tracker.size());
+        assertEquals(0, tracker.inFlight(kept.getHostPort()));
+    }
+
+    private static void record(ServerLatencyTracker tracker, Server server, long rttMillis) {
+        long start = tracker.start(server.getHostPort());
+        tracker.end(server.getHostPort(), start - TimeUnit.MILLISECONDS.toNanos(rttMillis), false);
+    }
+
+    private static HttpServer stubServer(String name, long delayMillis) {
+        try {
+            HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+            server.createContext("/ping", exchange -> {
+                try {
+                    Thread.sleep(delayMillis);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                byte[] body = name.getBytes(StandardCharsets.UTF_8);
+                exchange.sendResponseHeaders(200, body.length);
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(body);
+                }
+            });
+            server.setExecutor(Executors.newFixedThreadPool(4));
+            server.start();
+            return server;
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String hostPort(HttpServer server) {
+        return "127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    @TestConfiguration
+    static class RestTemplateConfig {
+
+        @Bean
+        @LoadBalanced
+        RestTemplate restTemplate() {
+            return new RestTemplate();
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.hro.core.cloudverifyapi.loadtest;
+
+import org.HdrHistogram.Recorder;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 闭环压测驱动
+ *
+ * 固定数量的客户端线程各自收到响应后立即发出下一个请求，用于在相同客户端并发下对比吞吐量与延迟
+ * (如 HTTP/1.1 与 h2c)。延迟为单个请求的往返时间；结果的 targetRate 为 0。
+ */
+class ClosedLoopLoadGenerator {
+
+    private static final long HIGHEST_TRACKABLE_NANOS = TimeUnit.SECONDS.toNanos(60);
+
+    /**
+     * @param concurrency 客户端并发线程数
+     * @param warmupNanos 预热时长，期间的请求不计入结果
+     * @param durationNanos 正式压测时长
+     * @param request
+     * @return
+     * @throws InterruptedException
+     */
+    OpenLoopLoadGenerator.Result run(int concurrency, long warmupNanos, long durationNanos,
+                                     OpenLoopLoadGenerator.Request request) throws InterruptedException {
+        Recorder recorder = new Recorder(HIGHEST_TRACKABLE_NANOS, 3);
+        AtomicLong sent = new AtomicLong();
+        AtomicLong errors = new AtomicLong();
+        CountDownLatch done = new CountDownLatch(concurrency);
+        long measureFrom = System.nanoTime() + warmupNanos;
+        long end = measureFrom + durationNanos;
+        for (int i = 0; i < concurrency; i++) {
+            Thread worker = new Thread(() -> {
+                try {
+                    long begin;
+                    while ((begin = System.nanoTime()) < end) {
+                        boolean ok;
+                        try {
+                            ok = request.execute();
+                        } catch (Exception e) {
+                            ok = false;
+                        }
+                        if (begin < measureFrom) {
+                            continue;
+                        }
+                        sent.incrementAndGet();
+                        recorder.recordValue(Math.min(System.nanoTime() - begin, HIGHEST_TRACKABLE_NANOS));
+                        if (!ok) {
+                            errors.incrementAndGet();
+                        }
+                    }
+                } finally {
+                    done.countDown();
+                }
+            }, "load-worker-" + i);
+            worker.setDaemon(true);
+            worker.start();
+        }
+        done.await();
+        long elapsed = System.nanoTime() - measureFrom;
+        return new OpenLoopLoadGenerator.Result(0, elapsed, sent.get(), errors.get(), recorder.getIntervalHistogram());
+    }
+}
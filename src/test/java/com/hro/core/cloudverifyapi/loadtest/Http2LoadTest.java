@@ -0,0 +1,99 @@
+package com.hro.core.cloudverifyapi.loadtest;
+
+import com.hro.core.cloudverifyapi.utils.MultiplexedVerifyClient;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.server.LocalServerPort;
+
+import java.io.File;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * HTTP/1.1 keep-alive 与 h2c 多路复用对比，默认不执行：mvn -Ploadtest,h2c test -Dtest=Http2LoadTest
+ *
+ * 两种协议使用同一个客户端实现(MultiplexedVerifyClient)，在相同的客户端并发下以闭环方式压 POST /verify/token：
+ * HTTP/1.1 每个并发请求占一个连接，h2c 所有请求复用一个连接(超过服务端 stream 上限时才新建)。
+ * 每档结束时记录客户端连接数。
+ *
+ * 参数(系统属性)：
+ * loadtest.concurrency 客户端并发数列表，默认 16,64,256
+ * loadtest.protocols   压测的协议，http1、h2c，默认两者都压
+ * loadtest.duration    每档正式压测秒数，默认 10
+ * loadtest.warmup      每档预热秒数，默认 3
+ * loadtest.mix         Token 组合，默认 valid:80,expired:10,forged:10
+ * loadtest.label       结果文件名前缀，默认 http2-时间戳
+ * 结果写入 target/loadtest/。
+ */
+@Tag("loadtest")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {"eureka.client.enabled=false", "spring.main.banner-mode=off", "verify.http2.h2c-enabled=true"})
+class Http2LoadTest {
+
+    private static Logger logger = LoggerFactory.getLogger(Http2LoadTest.class);
+
+    @LocalServerPort
+    private int port;
+
+    @Test
+    void http1VersusH2c() throws Exception {
+        String concurrencies = System.getProperty("loadtest.concurrency", "16,64,256");
+        String protocols = System.getProperty("loadtest.protocols", "http1,h2c");
+        long duration = Long.getLong("loadtest.duration", 10);
+        long warmup = Long.getLong("loadtest.warmup", 3);
+        String mixSpec = System.getProperty("loadtest.mix", "valid:80,expired:10,forged:10");
+        String label = System.getProperty("loadtest.label", "http2-" + System.currentTimeMillis());
+
+        Map<String, Object> settings = new LinkedHashMap<>();
+        settings.put("concurrency", concurrencies);
+        settings.put("durationSeconds", duration);
+        settings.put("warmupSeconds", warmup);
+        settings.put("mix", mixSpec);
+        settings.put("availableProcessors", Runtime.getRuntime().availableProcessors());
+        settings.put("javaVersion", System.getProperty("java.version"));
+        Map<String, Object> connections = new LinkedHashMap<>();
+        settings.put("connections", connections);
+
+        int maxConcurrency = 0;
+        for (String c : concurrencies.split(",")) {
+            maxConcurrency = Math.max(maxConcurrency, Integer.parseInt(c.trim()));
+        }
+        TokenMix mix = new TokenMix(mixSpec);
+        ClosedLoopLoadGenerator generator = new ClosedLoopLoadGenerator();
+        LoadTestReport report = new LoadTestReport(new File("target/loadtest"), label, settings);
+        long errors = 0;
+        for (String protocol : protocols.split(",")) {
+            boolean h2c = "h2c".equals(protocol.trim());
+            try (MultiplexedVerifyClient client = new MultiplexedVerifyClient("http://127.0.0.1:" + port,
+                    h2c, maxConcurrency, 1000, 30000)) {
+                OpenLoopLoadGenerator.Request request = () -> {
+                    TokenMix.Sample sample = mix.next();
+                    return sample.kind.getExpected().getCode().equals(client.verify(sample.token).getCode());
+                };
+                for (String c : concurrencies.split(",")) {
+                    int concurrency = Integer.parseInt(c.trim());
+                    OpenLoopLoadGenerator.Result result = generator.run(concurrency,
+                            TimeUnit.SECONDS.toNanos(warmup), TimeUnit.SECONDS.toNanos(duration), request);
+                    String scenario = protocol.trim() + "-c" + concurrency;
+                    report.add(scenario, result);
+                    connections.put(scenario, client.connectionCount());
+                    errors += result.errors;
+                    logger.info("{} x {}: {}/s, p50 {}us, p99 {}us, p99.9 {}us, connections {}, errors {}",
+                            protocol, concurrency, Math.round(result.achievedRate()),
+                            result.histogram.getValueAtPercentile(50) / 1000,
+                            result.histogram.getValueAtPercentile(99) / 1000,
+                            result.histogram.getValueAtPercentile(99.9) / 1000,
+                            client.connectionCount(), result.errors);
+                }
+            }
+        }
+        logger.info("load test report: {}", report.write().getAbsolutePath());
+        assertEquals(0, errors, "unexpected verify results");
+    }
+}
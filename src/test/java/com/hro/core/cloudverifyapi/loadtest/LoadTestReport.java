@@ -0,0 +1,81 @@
+package com.hro.core.cloudverifyapi.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.HistogramLogWriter;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 压测结果输出
+ *
+ * 每次运行在输出目录下生成 {label}.json(各场景的速率、错误数、百分位延迟，单位微秒)
+ * 和 {label}-{scenario}.hlog(HdrHistogram 原始直方图，可用 HistogramLogProcessor 等工具合并、对比)。
+ * label 默认取时间戳，对比不同提交时可用 -Dloadtest.label=提交号 指定。
+ */
+class LoadTestReport {
+
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9, 99.99};
+
+    private final File dir;
+    private final String label;
+    private final Map<String, Object> report = new LinkedHashMap<>();
+    private final List<Map<String, Object>> scenarios = new ArrayList<>();
+
+    LoadTestReport(File dir, String label, Map<String, Object> settings) {
+        this.dir = dir;
+        this.label = label;
+        report.put("label", label);
+        report.put("timestamp", System.currentTimeMillis());
+        report.put("settings", settings);
+        report.put("scenarios", scenarios);
+    }
+
+    void add(String scenario, OpenLoopLoadGenerator.Result result) throws IOException {
+        Histogram histogram = result.histogram;
+        Map<String, Object> entry = new LinkedHashMap<>();
+        entry.put("scenario", scenario);
+        entry.put("targetRate", result.targetRate);
+        entry.put("achievedRate", Math.round(result.achievedRate() * 10) / 10.0);
+        entry.put("sent", result.sent);
+        entry.put("completed", histogram.getTotalCount());
+        entry.put("errors", result.errors);
+        Map<String, Object> latency = new LinkedHashMap<>();
+        latency.put("mean", micros((long) histogram.getMean()));
+        for (double percentile : PERCENTILES) {
+            latency.put("p" + percentile, micros(histogram.getValueAtPercentile(percentile)));
+        }
+        latency.put("max", micros(histogram.getMaxValue()));
+        entry.put("latencyMicros", latency);
+        scenarios.add(entry);
+
+        dir.mkdirs();
+        HistogramLogWriter writer = new HistogramLogWriter(new File(dir, label + "-" + scenario + ".hlog"));
+        try {
+            writer.outputLogFormatVersion();
+            writer.outputComment("scenario=" + scenario + " targetRate=" + result.targetRate);
+            writer.outputLegend();
+            writer.outputIntervalHistogram(histogram);
+        } finally {
+            writer.close();
+        }
+    }
+
+    File write() throws IOException {
+        dir.mkdirs();
+        File file = new File(dir, label + ".json");
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(file, report);
+        return file;
+    }
+
+    private static long micros(long nanos) {
+        return TimeUnit.NANOSECONDS.toMicros(nanos);
+    }
+}
@@ -0,0 +1,164 @@
+package com.hro.core.cloudverifyapi.loadtest;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.AppenderBase;
+import com.hro.core.cloudverifyapi.jwt.JwtManager;
+import com.hro.core.cloudverifyapi.jwt.JwtResult;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 磁盘写日志变慢时同步输出与异步输出(logback.xml 中 AsyncAppender 的参数)的请求延迟对比，
+ * 默认不执行：mvn -Ploadtest test -Dtest=LoggingLatencyLoadTest
+ *
+ * 每个请求校验一次 Token 并输出一行 INFO 日志，每 100 个请求另输出一行 WARN，闭环压测。日志写到独立 LoggerContext 中的慢速 appender：
+ * 与文件 appender 一样串行写入，每次写入耗时 log-write-micros，每 log-stall-every 次额外卡顿 log-stall-millis
+ * (模拟刷盘、磁盘繁忙)。异步模式下队列剩余容量不足时 INFO 被丢弃，丢弃数一并记录；WARN 不允许丢失，
+ * 停止后核对写入的 WARN 数与输出的一致。
+ *
+ * 参数(系统属性)：
+ * loadtest.concurrency       并发线程数，默认 8
+ * loadtest.duration          每种模式正式压测秒数，默认 10
+ * loadtest.warmup            每种模式预热秒数，默认 3
+ * loadtest.log-write-micros  每次写日志耗时，默认 200
+ * loadtest.log-stall-millis  卡顿耗时，默认 50
+ * loadtest.log-stall-every   每多少次写入卡顿一次，默认 200
+ * loadtest.label             结果文件名前缀，默认 logging-时间戳
+ * 结果写入 target/loadtest/。
+ */
+@Tag("loadtest")
+class LoggingLatencyLoadTest {
+
+    private static Logger logger = LoggerFactory.getLogger(LoggingLatencyLoadTest.class);
+
+    @Test
+    void syncVersusAsyncAppenderOnSlowDisk() throws Exception {
+        int concurrency = Integer.getInteger("loadtest.concurrency", 8);
+        long duration = Long.getLong("loadtest.duration", 10);
+        long warmup = Long.getLong("loadtest.warmup", 3);
+        long writeMicros = Long.getLong("loadtest.log-write-micros", 200);
+        long stallMillis = Long.getLong("loadtest.log-stall-millis", 50);
+        long stallEvery = Long.getLong("loadtest.log-stall-every", 200);
+        String label = System.getProperty("loadtest.label", "logging-" + System.currentTimeMillis());
+
+        Map<String, Object> settings = new LinkedHashMap<>();
+        settings.put("concurrency", concurrency);
+        settings.put("durationSeconds", duration);
+        settings.put("warmupSeconds", warmup);
+        settings.put("logWriteMicros", writeMicros);
+        settings.put("logStallMillis", stallMillis);
+        settings.put("logStallEvery", stallEvery);
+        settings.put("availableProcessors", Runtime.getRuntime().availableProcessors());
+        settings.put("javaVersion", System.getProperty("java.version"));
+        Map<String, Object> written = new LinkedHashMap<>();
+        settings.put("logLinesWritten", written);
+        Map<String, Object> warnWritten = new LinkedHashMap<>();
+        settings.put("warnLinesWritten", warnWritten);
+
+        String token = JwtManager.getToken("10086", 3600);
+        JwtManager manager = JwtManager.getInstance();
+        ClosedLoopLoadGenerator generator = new ClosedLoopLoadGenerator();
+        LoadTestReport report = new LoadTestReport(new File("target/loadtest"), label, settings);
+        Map<String, Long> p99 = new LinkedHashMap<>();
+        Map<String, Long> warnLost = new LinkedHashMap<>();
+        for (String mode : new String[]{"sync", "async"}) {
+            LoggerContext context = new LoggerContext();
+            SlowAppender slow = new SlowAppender(TimeUnit.MICROSECONDS.toNanos(writeMicros),
+                    TimeUnit.MILLISECONDS.toNanos(stallMillis), stallEvery);
+            slow.setContext(context);
+            slow.start();
+            Appender<ILoggingEvent> appender = slow;
+            if ("async".equals(mode)) {
+                // 与 logback.xml 中 ASYNC_LOG_FILE 的默认参数一致
+                AsyncAppender async = new AsyncAppender();
+                async.setContext(context);
+                async.setQueueSize(1024);
+                async.setDiscardingThreshold(256);
+                async.setNeverBlock(false);
+                async.setIncludeCallerData(false);
+                // 停止时等待队列写完，再核对 WARN 数
+                async.setMaxFlushTime(60000);
+                async.addAppender(slow);
+                async.start();
+                appender = async;
+            }
+            ch.qos.logback.classic.Logger requestLogger = context.getLogger("com.hro.core.cloudverifyapi.request");
+            requestLogger.setLevel(Level.INFO);
+            requestLogger.setAdditive(false);
+            requestLogger.addAppender(appender);
+            AtomicLong requests = new AtomicLong();
+            AtomicLong warnSent = new AtomicLong();
+            try {
+                OpenLoopLoadGenerator.Result result = generator.run(concurrency,
+                        TimeUnit.SECONDS.toNanos(warmup), TimeUnit.SECONDS.toNanos(duration), () -> {
+                            JwtResult jwtResult = manager.checkToken(token);
+                            requestLogger.info("check token, status: {}, code: {}", jwtResult.isStatus(), jwtResult.getCode());
+                            if (requests.incrementAndGet() % 100 == 0) {
+                                warnSent.incrementAndGet();
+                                requestLogger.warn("slow token check, code: {}", jwtResult.getCode());
+                            }
+                            return jwtResult.isStatus();
+                        });
+                report.add(mode, result);
+                written.put(mode, slow.written.get());
+                p99.put(mode, result.histogram.getValueAtPercentile(99) / 1000);
+                logger.info("{}: {}/s, p50 {}us, p99 {}us, p99.9 {}us, log lines written {}",
+                        mode, Math.round(result.achievedRate()),
+                        result.histogram.getValueAtPercentile(50) / 1000,
+                        result.histogram.getValueAtPercentile(99) / 1000,
+                        result.histogram.getValueAtPercentile(99.9) / 1000, slow.written.get());
+            } finally {
+                context.stop();
+            }
+            warnWritten.put(mode, slow.warnWritten.get());
+            warnLost.put(mode, warnSent.get() - slow.warnWritten.get());
+        }
+        logger.info("load test report: {}", report.write().getAbsolutePath());
+        assertTrue(p99.get("async") < p99.get("sync"), "async appender should lower p99: " + p99);
+        assertEquals(0L, warnLost.get("async"), "async appender must not drop WARN");
+    }
+
+    /**
+     * 慢速磁盘：与 OutputStreamAppender 一样在锁内串行写入
+     */
+    private static final class SlowAppender extends AppenderBase<ILoggingEvent> {
+
+        private final long writeNanos;
+        private final long stallNanos;
+        private final long stallEvery;
+        private final AtomicLong written = new AtomicLong();
+        private final AtomicLong warnWritten = new AtomicLong();
+
+        SlowAppender(long writeNanos, long stallNanos, long stallEvery) {
+            this.writeNanos = writeNanos;
+            this.stallNanos = stallNanos;
+            this.stallEvery = stallEvery;
+        }
+
+        @Override
+        protected void append(ILoggingEvent event) {
+            event.getFormattedMessage();
+            if (event.getLevel().isGreaterOrEqual(Level.WARN)) {
+                warnWritten.incrementAndGet();
+            }
+            long count = written.incrementAndGet();
+            LockSupport.parkNanos(stallEvery > 0 && count % stallEvery == 0 ? writeNanos + stallNanos : writeNanos);
+        }
+    }
+}
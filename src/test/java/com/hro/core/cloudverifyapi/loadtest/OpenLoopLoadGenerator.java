@@ -0,0 +1,126 @@
+package com.hro.core.cloudverifyapi.loadtest;
+
+import com.hro.core.cloudverifyapi.config.VirtualThreads;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 开环压测驱动
+ *
+ * 按固定速率计算每个请求的计划发出时间，与服务端响应快慢无关；延迟从计划发出时间算起，
+ * 服务端变慢导致请求积压时排队时间也计入延迟，避免 coordinated omission 低估尾延迟。
+ */
+class OpenLoopLoadGenerator {
+
+    /**
+     * 单次请求，返回 false 表示结果不符合预期
+     */
+    interface Request {
+        boolean execute() throws Exception;
+    }
+
+    static final class Result {
+        final double targetRate;
+        final long durationNanos;
+        final long sent;
+        final long errors;
+        final Histogram histogram;
+
+        Result(double targetRate, long durationNanos, long sent, long errors, Histogram histogram) {
+            this.targetRate = targetRate;
+            this.durationNanos = durationNanos;
+            this.sent = sent;
+            this.errors = errors;
+            this.histogram = histogram;
+        }
+
+        double achievedRate() {
+            return histogram.getTotalCount() * 1e9 / durationNanos;
+        }
+    }
+
+    private static final long HIGHEST_TRACKABLE_NANOS = TimeUnit.SECONDS.toNanos(60);
+
+    private final int workers;
+    private final boolean virtualWorkers;
+
+    OpenLoopLoadGenerator(int workers) {
+        this(workers, false);
+    }
+
+    /**
+     * @param workers 客户端并发线程数
+     * @param virtualWorkers 每个请求一个虚拟线程(JDK 21+)，此时忽略 workers，客户端并发不设上限
+     */
+    OpenLoopLoadGenerator(int workers, boolean virtualWorkers) {
+        this.workers = workers;
+        this.virtualWorkers = virtualWorkers;
+    }
+
+    /**
+     * @param ratePerSecond 目标速率
+     * @param warmupNanos 预热时长，期间的延迟不计入结果
+     * @param durationNanos 正式压测时长
+     * @param request
+     * @return
+     * @throws InterruptedException
+     */
+    Result run(double ratePerSecond, long warmupNanos, long durationNanos, Request request) throws InterruptedException {
+        Recorder recorder = new Recorder(HIGHEST_TRACKABLE_NANOS, 3);
+        // 预热期间发出的请求不计入结果
+        AtomicLong errors = new AtomicLong();
+        ExecutorService pool = virtualWorkers ? VirtualThreads.newThreadPerTaskExecutor("load-worker-")
+                : Executors.newFixedThreadPool(workers, r -> {
+            Thread thread = new Thread(r, "load-worker");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        long intervalNanos = (long) (1e9 / ratePerSecond);
+        long start = System.nanoTime();
+        long measureFrom = start + warmupNanos;
+        long end = measureFrom + durationNanos;
+        long sent = 0;
+        boolean measuring = false;
+        for (long intended = start; intended < end; intended += intervalNanos) {
+            long wait = intended - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            if (!measuring && intended >= measureFrom) {
+                measuring = true;
+            }
+            final long intendedStart = intended;
+            final boolean counted = measuring;
+            pool.execute(() -> {
+                boolean ok;
+                try {
+                    ok = request.execute();
+                } catch (Exception e) {
+                    ok = false;
+                }
+                if (!counted) {
+                    return;
+                }
+                long latency = System.nanoTime() - intendedStart;
+                recorder.recordValue(Math.min(latency, HIGHEST_TRACKABLE_NANOS));
+                if (!ok) {
+                    errors.incrementAndGet();
+                }
+            });
+            if (measuring) {
+                sent++;
+            }
+        }
+        pool.shutdown();
+        pool.awaitTermination(HIGHEST_TRACKABLE_NANOS, TimeUnit.NANOSECONDS);
+        long elapsed = System.nanoTime() - measureFrom;
+        return new Result(ratePerSecond, elapsed, sent, errors.get(), recorder.getIntervalHistogram());
+    }
+}
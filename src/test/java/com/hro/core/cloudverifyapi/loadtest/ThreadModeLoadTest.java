@@ -0,0 +1,192 @@
+package com.hro.core.cloudverifyapi.loadtest;
+
+import com.hro.core.cloudverifyapi.config.ThreadModeConfig;
+import com.hro.core.cloudverifyapi.config.VirtualThreads;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.web.server.LocalServerPort;
+import org.springframework.context.annotation.Bean;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * 平台线程与虚拟线程请求处理模式对比，默认不执行：
+ * mvn -Ploadtest test -Dtest=ThreadModeLoadTest                    平台线程
+ * mvn -Pvirtual-threads,loadtest test -Dtest=ThreadModeLoadTest    虚拟线程(JDK 21+)
+ *
+ * 以开环速率压 GET /rsa/test(阻塞 2 秒)，统计服务端同时处理中的请求数峰值、平台线程数峰值、
+ * 进程 RSS(/proc/self/status，仅 Linux)与堆内存峰值，按 (RSS 峰值 - 压测前 RSS) / 处理中请求数峰值
+ * 估算每个处理中请求的内存开销。JDK 21+ 上客户端使用虚拟线程，两种模式下客户端开销相同。
+ *
+ * 参数(系统属性)：
+ * loadtest.rates       目标速率列表(次/秒)，默认 50,100,200,400
+ * loadtest.duration    每档正式压测秒数，默认 10
+ * loadtest.warmup      每档预热秒数，默认 2
+ * loadtest.workers     客户端不支持虚拟线程时的并发线程数，默认 1000
+ * loadtest.label       结果文件名前缀，默认 threads-{模式}-时间戳
+ * 结果写入 target/loadtest/。
+ */
+@Tag("loadtest")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {"eureka.client.enabled=false", "spring.main.banner-mode=off"})
+class ThreadModeLoadTest {
+
+    private static Logger logger = LoggerFactory.getLogger(ThreadModeLoadTest.class);
+
+    private static final AtomicInteger IN_FLIGHT = new AtomicInteger();
+    private static final AtomicInteger PEAK_IN_FLIGHT = new AtomicInteger();
+
+    @LocalServerPort
+    private int port;
+
+    @Value("${" + ThreadModeConfig.MODE_PROPERTY + ":" + ThreadModeConfig.PLATFORM + "}")
+    private String threadMode;
+
+    @Test
+    void blockingEndpoint() throws Exception {
+        String mode = ThreadModeConfig.useVirtualThreads(threadMode) ? ThreadModeConfig.VIRTUAL : ThreadModeConfig.PLATFORM;
+        String rates = System.getProperty("loadtest.rates", "50,100,200,400");
+        long duration = Long.getLong("loadtest.duration", 10);
+        long warmup = Long.getLong("loadtest.warmup", 2);
+        int workers = Integer.getInteger("loadtest.workers", 1000);
+        String label = System.getProperty("loadtest.label", "threads-" + mode + "-" + System.currentTimeMillis());
+
+        Map<String, Object> settings = new LinkedHashMap<>();
+        settings.put("threadMode", mode);
+        settings.put("rates", rates);
+        settings.put("durationSeconds", duration);
+        settings.put("warmupSeconds", warmup);
+        settings.put("virtualClient", VirtualThreads.isSupported());
+        settings.put("availableProcessors", Runtime.getRuntime().availableProcessors());
+        settings.put("maxHeapMb", Runtime.getRuntime().maxMemory() >> 20);
+        settings.put("javaVersion", System.getProperty("java.version"));
+        Map<String, Object> memory = new LinkedHashMap<>();
+        settings.put("memory", memory);
+
+        OpenLoopLoadGenerator generator = new OpenLoopLoadGenerator(workers, VirtualThreads.isSupported());
+        LoadTestReport report = new LoadTestReport(new File("target/loadtest"), label, settings);
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        long errors = 0;
+        for (String rate : rates.split(",")) {
+            System.gc();
+            long baselineRss = rssKb();
+            PEAK_IN_FLIGHT.set(0);
+            threads.resetPeakThreadCount();
+            AtomicLong peakRss = new AtomicLong(baselineRss);
+            AtomicLong peakHeap = new AtomicLong();
+            ScheduledExecutorService sampler = Executors.newSingleThreadScheduledExecutor();
+            sampler.scheduleAtFixedRate(() -> {
+                peakRss.accumulateAndGet(rssKb(), Math::max);
+                Runtime runtime = Runtime.getRuntime();
+                peakHeap.accumulateAndGet(runtime.totalMemory() - runtime.freeMemory(), Math::max);
+            }, 0, 100, TimeUnit.MILLISECONDS);
+
+            OpenLoopLoadGenerator.Result result;
+            try {
+                result = generator.run(Double.parseDouble(rate.trim()),
+                        TimeUnit.SECONDS.toNanos(warmup), TimeUnit.SECONDS.toNanos(duration), this::blockingCall);
+            } finally {
+                sampler.shutdownNow();
+            }
+            String scenario = mode + "-" + rate.trim();
+            report.add(scenario, result);
+            errors += result.errors;
+
+            int peakInFlight = PEAK_IN_FLIGHT.get();
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("peakServerInFlight", peakInFlight);
+            entry.put("peakPlatformThreads", threads.getPeakThreadCount());
+            entry.put("baselineRssKb", baselineRss);
+            entry.put("peakRssKb", peakRss.get());
+            entry.put("peakHeapKb", peakHeap.get() >> 10);
+            entry.put("rssKbPerInFlight", peakInFlight == 0 ? 0 : (peakRss.get() - baselineRss) / peakInFlight);
+            memory.put(scenario, entry);
+            logger.info("{} @ {}/s: achieved {}/s, p50 {}ms, p99 {}ms, max {}ms, errors {}, {}",
+                    mode, rate, Math.round(result.achievedRate()),
+                    result.histogram.getValueAtPercentile(50) / 1000000,
+                    result.histogram.getValueAtPercentile(99) / 1000000,
+                    result.histogram.getMaxValue() / 1000000, result.errors, entry);
+        }
+        logger.info("load test report: {}", report.write().getAbsolutePath());
+        assertEquals(0, errors, "unexpected results");
+    }
+
+    private boolean blockingCall() throws Exception {
+        HttpURLConnection conn = (HttpURLConnection) new URL("http://127.0.0.1:" + port + "/rsa/test").openConnection();
+        conn.setReadTimeout((int) TimeUnit.SECONDS.toMillis(60));
+        try (InputStream in = conn.getInputStream()) {
+            byte[] body = new byte[16];
+            int n = in.read(body);
+            return n > 0 && "true".equals(new String(body, 0, n, StandardCharsets.UTF_8).trim());
+        }
+    }
+
+    /**
+     * 进程常驻内存(KB)，非 Linux 返回 0
+     */
+    private static long rssKb() {
+        try {
+            List<String> lines = Files.readAllLines(Paths.get("/proc/self/status"), StandardCharsets.UTF_8);
+            for (String line : lines) {
+                if (line.startsWith("VmRSS:")) {
+                    return Long.parseLong(line.replaceAll("[^0-9]", ""));
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            logger.debug("read rss error", e);
+        }
+        return 0;
+    }
+
+    @TestConfiguration
+    static class InFlightConfig {
+
+        /**
+         * 统计服务端同时处理中的 /rsa/test 请求数
+         */
+        @Bean
+        OncePerRequestFilter inFlightFilter() {
+            return new OncePerRequestFilter() {
+                @Override
+                protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                                FilterChain filterChain) throws ServletException, IOException {
+                    PEAK_IN_FLIGHT.accumulateAndGet(IN_FLIGHT.incrementAndGet(), Math::max);
+                    try {
+                        filterChain.doFilter(request, response);
+                    } finally {
+                        IN_FLIGHT.decrementAndGet();
+                    }
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.hro.core.cloudverifyapi.loadtest;
+
+import com.hro.core.cloudverifyapi.enums.ResultCodeEnum;
+import com.hro.core.cloudverifyapi.jwt.JwtManager;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+
+import java.security.KeyPairGenerator;
+import java.security.PrivateKey;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 压测请求的 Token 组合：合法、过期、伪造 三类按权重随机抽取
+ *
+ * 权重格式 valid:80,expired:10,forged:10，Token 在压测前一次性生成，压测过程中不做签名运算。
+ */
+class TokenMix {
+
+    enum Kind {
+        VALID(ResultCodeEnum.SUCCESS),
+        EXPIRED(ResultCodeEnum.TOKEN_TIMEOUT),
+        FORGED(ResultCodeEnum.TOKEN_UNVALIDATE);
+
+        private final ResultCodeEnum expected;
+
+        Kind(ResultCodeEnum expected) {
+            this.expected = expected;
+        }
+
+        ResultCodeEnum getExpected() {
+            return expected;
+        }
+    }
+
+    static final class Sample {
+        final Kind kind;
+        final String token;
+
+        Sample(Kind kind, String token) {
+            this.kind = kind;
+            this.token = token;
+        }
+    }
+
+    private static final int TOKENS_PER_KIND = 256;
+
+    private final int[] weights = new int[Kind.values().length];
+    private final int totalWeight;
+    private final List<List<String>> tokens = new ArrayList<>();
+
+    TokenMix(String spec) throws Exception {
+        int total = 0;
+        for (String part : spec.split(",")) {
+            String[] kv = part.trim().split(":");
+            Kind kind = Kind.valueOf(kv[0].trim().toUpperCase());
+            weights[kind.ordinal()] = Integer.parseInt(kv[1].trim());
+            total += weights[kind.ordinal()];
+        }
+        if (total <= 0) {
+            throw new IllegalArgumentException("empty token mix: " + spec);
+        }
+        totalWeight = total;
+
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+        generator.initialize(JwtManager.getInstance().getPublicKey().getModulus().bitLength());
+        PrivateKey forgeKey = generator.generateKeyPair().getPrivate();
+        String kid = JwtManager.getInstance().getKeyId();
+        for (Kind kind : Kind.values()) {
+            List<String> list = new ArrayList<>(TOKENS_PER_KIND);
+            for (int i = 0; i < TOKENS_PER_KIND; i++) {
+                String uid = "load-" + i;
+                switch (kind) {
+                    case VALID:
+                        list.add(JwtManager.getToken(uid, 3600));
+                        break;
+                    case EXPIRED:
+                        list.add(JwtManager.getToken(uid, -60));
+                        break;
+                    default:
+                        // 冒用当前 kid，但用另一把私钥签名
+                        list.add(Jwts.builder().setHeaderParam(JwtManager.KEY_ID, kid).setSubject(uid)
+                                .setExpiration(new Date(System.currentTimeMillis() + 3600 * 1000L))
+                                .signWith(SignatureAlgorithm.RS512, forgeKey).compact());
+                }
+            }
+            tokens.add(list);
+        }
+    }
+
+    Sample next() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int r = random.nextInt(totalWeight);
+        for (Kind kind : Kind.values()) {
+            r -= weights[kind.ordinal()];
+            if (r < 0) {
+                List<String> list = tokens.get(kind.ordinal());
+                return new Sample(kind, list.get(random.nextInt(list.size())));
+            }
+        }
+        throw new IllegalStateException();
+    }
+}
@@ -0,0 +1,121 @@
+package com.hro.core.cloudverifyapi.loadtest;
+
+import com.hro.core.cloudverifyapi.jwt.JwtResult;
+import com.hro.core.cloudverifyapi.utils.VerifyBinaryCodec;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.server.LocalServerPort;
+import org.springframework.util.StreamUtils;
+
+import java.io.File;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * verify 接口端到端压测，默认不执行：mvn -Ploadtest test
+ *
+ * 参数(系统属性)：
+ * loadtest.rates       目标速率列表(次/秒)，默认 200,500,1000
+ * loadtest.duration    每档正式压测秒数，默认 20
+ * loadtest.warmup      每档预热秒数，默认 5
+ * loadtest.workers     客户端并发线程数，默认 64
+ * loadtest.mix         Token 组合，默认 valid:80,expired:10,forged:10
+ * loadtest.endpoints   压测的接口，json、binary，默认两者都压
+ * loadtest.label       结果文件名前缀，默认时间戳
+ * 结果写入 target/loadtest/。
+ */
+@Tag("loadtest")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {"eureka.client.enabled=false", "spring.main.banner-mode=off"})
+class VerifyEndpointLoadTest {
+
+    private static Logger logger = LoggerFactory.getLogger(VerifyEndpointLoadTest.class);
+
+    @LocalServerPort
+    private int port;
+
+    @Test
+    void verifyEndpoints() throws Exception {
+        String rates = System.getProperty("loadtest.rates", "200,500,1000");
+        long duration = Long.getLong("loadtest.duration", 20);
+        long warmup = Long.getLong("loadtest.warmup", 5);
+        int workers = Integer.getInteger("loadtest.workers", 64);
+        String mixSpec = System.getProperty("loadtest.mix", "valid:80,expired:10,forged:10");
+        String endpoints = System.getProperty("loadtest.endpoints", "json,binary");
+        String label = System.getProperty("loadtest.label", String.valueOf(System.currentTimeMillis()));
+
+        Map<String, Object> settings = new LinkedHashMap<>();
+        settings.put("rates", rates);
+        settings.put("durationSeconds", duration);
+        settings.put("warmupSeconds", warmup);
+        settings.put("workers", workers);
+        settings.put("mix", mixSpec);
+        settings.put("availableProcessors", Runtime.getRuntime().availableProcessors());
+        settings.put("javaVersion", System.getProperty("java.version"));
+
+        TokenMix mix = new TokenMix(mixSpec);
+        OpenLoopLoadGenerator generator = new OpenLoopLoadGenerator(workers);
+        LoadTestReport report = new LoadTestReport(new File("target/loadtest"), label, settings);
+        long errors = 0;
+        for (String endpoint : endpoints.split(",")) {
+            OpenLoopLoadGenerator.Request request = "binary".equals(endpoint.trim())
+                    ? () -> binaryVerify(mix.next()) : () -> jsonVerify(mix.next());
+            for (String rate : rates.split(",")) {
+                OpenLoopLoadGenerator.Result result = generator.run(Double.parseDouble(rate.trim()),
+                        TimeUnit.SECONDS.toNanos(warmup), TimeUnit.SECONDS.toNanos(duration), request);
+                report.add(endpoint.trim() + "-" + rate.trim(), result);
+                errors += result.errors;
+                logger.info("{} @ {}/s: achieved {}/s, p50 {}us, p99 {}us, p99.9 {}us, max {}us, errors {}",
+                        endpoint, rate, Math.round(result.achievedRate()),
+                        result.histogram.getValueAtPercentile(50) / 1000,
+                        result.histogram.getValueAtPercentile(99) / 1000,
+                        result.histogram.getValueAtPercentile(99.9) / 1000,
+                        result.histogram.getMaxValue() / 1000, result.errors);
+            }
+        }
+        logger.info("load test report: {}", report.write().getAbsolutePath());
+        assertEquals(0, errors, "unexpected verify results");
+    }
+
+    private boolean jsonVerify(TokenMix.Sample sample) throws Exception {
+        HttpURLConnection conn = (HttpURLConnection) new URL("http://127.0.0.1:" + port + "/verify/token").openConnection();
+        conn.setRequestMethod("POST");
+        conn.setDoOutput(true);
+        conn.setRequestProperty("Content-Type", "application/x-www-form-urlencoded");
+        try (OutputStream out = conn.getOutputStream()) {
+            out.write(("token=" + URLEncoder.encode(sample.token, "UTF-8")).getBytes(StandardCharsets.UTF_8));
+        }
+        try (InputStream in = conn.getInputStream()) {
+            String body = StreamUtils.copyToString(in, StandardCharsets.UTF_8);
+            return body.contains("\"code\":\"" + sample.kind.getExpected().getCode() + "\"");
+        }
+    }
+
+    private boolean binaryVerify(TokenMix.Sample sample) throws Exception {
+        HttpURLConnection conn = (HttpURLConnection) new URL("http://127.0.0.1:" + port + "/verify/binary").openConnection();
+        conn.setRequestMethod("POST");
+        conn.setDoOutput(true);
+        conn.setRequestProperty("Content-Type", VerifyBinaryCodec.CONTENT_TYPE);
+        try (OutputStream out = conn.getOutputStream()) {
+            out.write(VerifyBinaryCodec.encodeRequest(Collections.singletonList(sample.token)));
+        }
+        try (InputStream in = conn.getInputStream()) {
+            List<JwtResult> results = VerifyBinaryCodec.decodeResults(StreamUtils.copyToByteArray(in));
+            return results.size() == 1 && sample.kind.getExpected().getCode().equals(results.get(0).getCode());
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.hro.core.cloudverifyapi.response;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hro.core.cloudverifyapi.enums.ResultCodeEnum;
+import com.hro.core.cloudverifyapi.jwt.JwtResult;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class PreEncodedResponsesTests {
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    @Test
+    void jwtResultMatchesJackson() throws Exception {
+        JwtResult[] results = {
+                new JwtResult(true, "10086", JwtResult.MSG_SUCCESS, ResultCodeEnum.SUCCESS.getCode()),
+                new JwtResult(true, "带\"引号\\和中文\n", JwtResult.MSG_SUCCESS, ResultCodeEnum.SUCCESS.getCode()),
+                new JwtResult(true, null, JwtResult.MSG_SUCCESS, ResultCodeEnum.SUCCESS.getCode()),
+                new JwtResult(false, null, JwtResult.MSG_TIMEOUT, ResultCodeEnum.TOKEN_TIMEOUT.getCode()),
+                new JwtResult(false, null, JwtResult.MSG_UNVALIDATE, ResultCodeEnum.TOKEN_UNVALIDATE.getCode()),
+                new JwtResult(false, "x", "其他", ResultCodeEnum.FAILURE.getCode())
+        };
+        for (JwtResult result : results) {
+            byte[] expected = mapper.writeValueAsBytes(result);
+            assertArrayEquals(expected, PreEncodedResponses.jwtResult(result));
+
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            int len = PreEncodedResponses.writeJwtResult(result, out);
+            assertArrayEquals(expected, out.toByteArray());
+            assertEquals(expected.length, len);
+        }
+    }
+
+    @Test
+    void commonWrapperMatchesJackson() throws Exception {
+        for (ResultCodeEnum codeEnum : ResultCodeEnum.values()) {
+            CommonWrapper wrapper = new CommonWrapper();
+            wrapper.setCode(codeEnum.getCode());
+            wrapper.setMsg(codeEnum.getDesc());
+            assertArrayEquals(mapper.writeValueAsBytes(wrapper), PreEncodedResponses.commonWrapper(codeEnum));
+            assertEquals(codeEnum, ResultCodeEnum.getResult(codeEnum.getCode()));
+        }
+        assertEquals(ResultCodeEnum.UNKNOW, ResultCodeEnum.getResult("12345"));
+    }
+}
@@ -0,0 +1,112 @@
+package com.hro.core.cloudverifyapi.response;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectOutputStream;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StreamingWrapperTests {
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    @Test
+    void listMatchesListQueryWrapper() throws Exception {
+        List<String> records = Arrays.asList("a", "b", "c");
+        ListQueryWrapper<String> wrapper = new ListQueryWrapper<>();
+        wrapper.setRecords(records);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        new StreamingListQueryWrapper<>(records.iterator()).writeTo(out);
+
+        assertEquals(mapper.readTree(mapper.writeValueAsBytes(wrapper)), mapper.readTree(out.toByteArray()));
+    }
+
+    @Test
+    void pageMatchesPageSearchWrapperAndClosesStream() throws Exception {
+        AtomicBoolean closed = new AtomicBoolean();
+        Stream<Integer> records = IntStream.range(0, 20000).boxed().onClose(() -> closed.set(true));
+        StreamingPageSearchWrapper<Integer> streaming = new StreamingPageSearchWrapper<>(records);
+        streaming.setTotalCount(20000);
+        streaming.setPageNo(1);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        streaming.writeTo(out);
+
+        PageSearchWrapper wrapper = new PageSearchWrapper();
+        wrapper.setTotalCount(20000);
+        wrapper.setPageNo(1);
+        wrapper.setRecords(IntStream.range(0, 20000).boxed().toArray());
+        JsonNode expected = mapper.readTree(mapper.writeValueAsBytes(wrapper));
+
+        assertEquals(expected, mapper.readTree(out.toByteArray()));
+        assertTrue(closed.get());
+    }
+
+    @Test
+    void closesStreamWhenWriteToNeverRuns() throws Exception {
+        AtomicInteger closed = new AtomicInteger();
+        Stream<Integer> records = Stream.of(1, 2, 3).onClose(closed::incrementAndGet);
+        StreamingListQueryWrapper<Integer> streaming = new StreamingListQueryWrapper<>(records);
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+        try {
+            streaming.toResponseEntity();
+        } finally {
+            RequestContextHolder.resetRequestAttributes();
+        }
+
+        // 客户端断开等情况下 writeTo 不会执行，异步请求结束时由登记的回调关闭
+        CallableProcessingInterceptor interceptor = WebAsyncUtils.getAsyncManager(request).getCallableInterceptor(streaming);
+        interceptor.afterCompletion(new ServletWebRequest(request), () -> null);
+        assertEquals(1, closed.get());
+        streaming.close();
+        assertEquals(1, closed.get());
+    }
+
+    @Test
+    void sourceAndMapperAreNotSerialized() throws Exception {
+        StreamingListQueryWrapper<String> streaming = new StreamingListQueryWrapper<>(Stream.of("a"));
+        streaming.setObjectMapper(mapper);
+
+        JsonNode json = mapper.valueToTree(streaming);
+        assertFalse(json.has("objectMapper"));
+        new ObjectOutputStream(new ByteArrayOutputStream()).writeObject(streaming);
+    }
+
+    @Test
+    void failedStreamIsNotCompleteJson() {
+        Iterator<Integer> records = IntStream.range(0, 10).boxed().map(i -> {
+            if (i == 3) {
+                throw new IllegalStateException("cursor broken");
+            }
+            return i;
+        }).iterator();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        assertThrows(IllegalStateException.class, () -> new StreamingListQueryWrapper<>(records).writeTo(out));
+
+        assertTrue(out.size() > 0);
+        assertThrows(JsonProcessingException.class, () -> mapper.readTree(out.toByteArray()));
+    }
+}
@@ -0,0 +1,55 @@
+package com.hro.core.cloudverifyapi.service;
+
+import com.hro.core.cloudverifyapi.enums.ResultCodeEnum;
+import com.hro.core.cloudverifyapi.jwt.JwtManager;
+import com.hro.core.cloudverifyapi.jwt.JwtResult;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class VerifyServiceTests {
+
+    private VerifyService service(int chunkSize, int maxBatchSize) {
+        VerifyService service = new VerifyService();
+        ReflectionTestUtils.setField(service, "cryptoExecutor", new SimpleAsyncTaskExecutor());
+        ReflectionTestUtils.setField(service, "chunkSize", chunkSize);
+        ReflectionTestUtils.setField(service, "maxBatchSize", maxBatchSize);
+        service.init();
+        return service;
+    }
+
+    @Test
+    void rejectsNonPositiveSettingsAtStartup() {
+        assertThrows(IllegalArgumentException.class, () -> service(0, 100));
+        assertThrows(IllegalArgumentException.class, () -> service(-1, 100));
+        assertThrows(IllegalArgumentException.class, () -> service(16, 0));
+    }
+
+    @Test
+    void checksChunkedBatchInOrder() {
+        String token = JwtManager.getToken("10086", 60);
+        String expired = JwtManager.getToken("10086", -60);
+        List<String> tokens = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            tokens.add(i % 2 == 0 ? token : expired);
+        }
+        List<JwtResult> results = service(3, 10).checkTokens(tokens);
+        for (int i = 0; i < tokens.size(); i++) {
+            assertEquals(i % 2 == 0 ? ResultCodeEnum.SUCCESS.getCode() : ResultCodeEnum.TOKEN_TIMEOUT.getCode(),
+                    results.get(i).getCode());
+        }
+    }
+
+    @Test
+    void rejectsBatchOverMaxSize() {
+        VerifyService service = service(16, 2);
+        assertThrows(IllegalArgumentException.class, () -> service.checkTokens(Arrays.asList("a", "b", "c")));
+    }
+}
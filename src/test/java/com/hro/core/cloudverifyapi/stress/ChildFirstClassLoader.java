@@ -0,0 +1,55 @@
+package com.hro.core.cloudverifyapi.stress;
+
+import java.net.URL;
+import java.net.URLClassLoader;
+
+/**
+ * 本项目的类优先从自身加载，其余委托父加载器
+ *
+ * 每次试验使用新的加载器，JwtManager、RsaClientUtil 等类的静态状态都从未初始化开始，
+ * 懒加载、静态字段发布的竞争在每次试验中重新发生。
+ */
+class ChildFirstClassLoader extends URLClassLoader {
+
+    private static final String PROJECT_PACKAGE = "com.hro.core.cloudverifyapi.";
+
+    private static final URL MAIN_CLASSES =
+            com.hro.core.cloudverifyapi.jwt.JwtManager.class.getProtectionDomain().getCodeSource().getLocation();
+
+    static {
+        ClassLoader.registerAsParallelCapable();
+    }
+
+    ChildFirstClassLoader() {
+        super(new URL[]{MAIN_CLASSES}, ChildFirstClassLoader.class.getClassLoader());
+    }
+
+    @Override
+    protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+        if (!name.startsWith(PROJECT_PACKAGE)) {
+            return super.loadClass(name, resolve);
+        }
+        synchronized (getClassLoadingLock(name)) {
+            Class<?> loaded = findLoadedClass(name);
+            if (loaded == null) {
+                try {
+                    loaded = findClass(name);
+                } catch (ClassNotFoundException e) {
+                    // 测试类等不在 target/classes 中
+                    loaded = super.loadClass(name, false);
+                }
+            }
+            if (resolve) {
+                resolveClass(loaded);
+            }
+            return loaded;
+        }
+    }
+
+    /**
+     * 反射调用静态方法
+     */
+    Object invokeStatic(String className, String method, Class<?>[] types, Object... args) throws Exception {
+        return loadClass(className).getMethod(method, types).invoke(null, args);
+    }
+}
@@ -0,0 +1,86 @@
+package com.hro.core.cloudverifyapi.stress;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.lang.reflect.Method;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * 通过反射使用 JFR(jdk.jfr，JDK 11+ 及 8u262+)，记录锁竞争与 park 事件并按事件类型计数
+ *
+ * 项目按 Java 8 编译，不能直接引用 jdk.jfr；当前 JDK 不支持 JFR 时 {@link #start(String...)} 返回 null。
+ */
+final class JfrRecorder {
+
+    private static Logger logger = LoggerFactory.getLogger(JfrRecorder.class);
+
+    static final String MONITOR_ENTER = "jdk.JavaMonitorEnter";
+    static final String THREAD_PARK = "jdk.ThreadPark";
+
+    private final Object recording;
+    private final Class<?> recordingClass;
+
+    private JfrRecorder(Object recording, Class<?> recordingClass) {
+        this.recording = recording;
+        this.recordingClass = recordingClass;
+    }
+
+    /**
+     * 开始记录，阈值为 0，记录全部事件
+     * @param events 事件名
+     * @return 不支持 JFR 时返回 null
+     */
+    static JfrRecorder start(String... events) {
+        try {
+            Class<?> recordingClass = Class.forName("jdk.jfr.Recording");
+            Object recording = recordingClass.getConstructor().newInstance();
+            Method enable = recordingClass.getMethod("enable", String.class);
+            Method withThreshold = Class.forName("jdk.jfr.EventSettings").getMethod("withThreshold", Duration.class);
+            for (String event : events) {
+                withThreshold.invoke(enable.invoke(recording, event), Duration.ZERO);
+            }
+            recordingClass.getMethod("start").invoke(recording);
+            return new JfrRecorder(recording, recordingClass);
+        } catch (Exception | LinkageError e) {
+            logger.info("jfr unavailable: {}", e.toString());
+            return null;
+        }
+    }
+
+    /**
+     * 停止记录，写出到 dump 并统计各事件数量
+     * @param dump
+     * @return 事件名 -> 数量
+     */
+    Map<String, Long> stop(File dump) {
+        Map<String, Long> counts = new TreeMap<>();
+        try {
+            recordingClass.getMethod("stop").invoke(recording);
+            dump.getParentFile().mkdirs();
+            Path path = dump.toPath();
+            recordingClass.getMethod("dump", Path.class).invoke(recording, path);
+            List<?> events = (List<?>) Class.forName("jdk.jfr.consumer.RecordingFile")
+                    .getMethod("readAllEvents", Path.class).invoke(null, path);
+            Method getEventType = Class.forName("jdk.jfr.consumer.RecordedEvent").getMethod("getEventType");
+            Method getName = Class.forName("jdk.jfr.EventType").getMethod("getName");
+            for (Object event : events) {
+                counts.merge((String) getName.invoke(getEventType.invoke(event)), 1L, Long::sum);
+            }
+        } catch (Exception e) {
+            logger.warn("read jfr recording error", e);
+        } finally {
+            try {
+                recordingClass.getMethod("close").invoke(recording);
+            } catch (Exception e) {
+                logger.debug("close jfr recording error", e);
+            }
+        }
+        return counts;
+    }
+}
@@ -0,0 +1,183 @@
+package com.hro.core.cloudverifyapi.stress;
+
+import com.hro.core.cloudverifyapi.jwt.TokenCache;
+import com.hro.core.cloudverifyapi.utils.RsaUtil;
+import io.jsonwebtoken.SignatureAlgorithm;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Method;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.security.interfaces.RSAPublicKey;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 共享加解密状态的并发压力试验，默认不执行：mvn -Pstress test [-Dstress.trials=1000]
+ *
+ * 每个场景按 jcstress 的方式统计结果分布，出现 FORBIDDEN 结果即失败。
+ * 需要重新触发静态懒加载的场景每次试验使用新的 ChildFirstClassLoader。
+ */
+@Tag("stress")
+class SharedCryptoStateStressTest {
+
+    private static final String JWT_MANAGER = "com.hro.core.cloudverifyapi.jwt.JwtManager";
+    private static final String CRYPTO_PROFILE = "com.hro.core.cloudverifyapi.jwt.CryptoProfile";
+    private static final String RSA_UTIL = "com.hro.core.cloudverifyapi.utils.RsaUtil";
+    private static final String RSA_CLIENT_UTIL = "com.hro.core.cloudverifyapi.utils.RsaClientUtil";
+
+    private static final int ACTORS = 4;
+
+    /**
+     * 多线程同时首次调用 JwtManager：只能生成一个密钥对，每个线程签发的 Token 都能立即通过校验
+     */
+    @Test
+    void jwtManagerLazyInit() throws Exception {
+        new StressHarness("JwtManager lazy init", ACTORS, 100).run(() -> {
+            ChildFirstClassLoader loader = new ChildFirstClassLoader();
+            String[] tokens = new String[ACTORS];
+            return new StressHarness.Trial() {
+                @Override
+                public String actor(int id) throws Exception {
+                    tokens[id] = (String) loader.invokeStatic(JWT_MANAGER, "getToken",
+                            new Class<?>[]{String.class, int.class}, "u" + id, 60);
+                    Object manager = loader.invokeStatic(JWT_MANAGER, "getInstance", new Class<?>[0]);
+                    return call(manager, "getKeyId") + "/" + verified(manager, tokens[id]);
+                }
+
+                @Override
+                public String arbiter(String[] results) throws Exception {
+                    Set<String> kids = new HashSet<>();
+                    for (String result : results) {
+                        if (!result.endsWith("/true")) {
+                            return "token rejected: " + result;
+                        }
+                        kids.add(result.substring(0, result.indexOf('/')));
+                    }
+                    // 初始化完成后，所有 Token 交叉校验
+                    Object manager = loader.invokeStatic(JWT_MANAGER, "getInstance", new Class<?>[0]);
+                    for (String token : tokens) {
+                        if (!verified(manager, token)) {
+                            return "cross check rejected";
+                        }
+                    }
+                    return kids.size() == 1 ? "one key, all verified" : kids.size() + " keys";
+                }
+            };
+        }, "one key, all verified");
+    }
+
+    /**
+     * 密钥轮换与签发、校验并发：轮换前签发的 Token 以及轮换期间签发的 Token 都能通过校验
+     */
+    @Test
+    void profileSwapWhileVerifying() throws Exception {
+        new StressHarness("JwtManager profile swap", ACTORS, 50).run(() -> {
+            ChildFirstClassLoader loader = new ChildFirstClassLoader();
+            applyProfile(loader, 512);
+            String before = (String) loader.invokeStatic(JWT_MANAGER, "getToken",
+                    new Class<?>[]{String.class, int.class}, "before", 60);
+            return new StressHarness.Trial() {
+                @Override
+                public String actor(int id) throws Exception {
+                    if (id == 0) {
+                        applyProfile(loader, 768);
+                        return "swapped";
+                    }
+                    String token = (String) loader.invokeStatic(JWT_MANAGER, "getToken",
+                            new Class<?>[]{String.class, int.class}, "u" + id, 60);
+                    Object manager = loader.invokeStatic(JWT_MANAGER, "getInstance", new Class<?>[0]);
+                    return verified(manager, before) + "/" + verified(manager, token);
+                }
+
+                @Override
+                public String arbiter(String[] results) {
+                    for (int i = 1; i < results.length; i++) {
+                        if (!"true/true".equals(results[i])) {
+                            return "rejected: " + results[i];
+                        }
+                    }
+                    return "all verified";
+                }
+            };
+        }, "all verified");
+    }
+
+    /**
+     * RsaClientUtil 默认公钥加密与其他线程还原任意公钥并发：默认公钥不能被替换，还原结果必须是请求的公钥
+     */
+    @Test
+    void rsaClientDefaultKey() throws Exception {
+        RSAPublicKey other = (RSAPublicKey) RsaUtil.initKey().get(RsaUtil.PUBLIC_KEY);
+        String modulus = other.getModulus().toString();
+        String exponent = other.getPublicExponent().toString();
+        new StressHarness("RsaClientUtil default key", ACTORS, 200).run(() -> {
+            ChildFirstClassLoader loader = new ChildFirstClassLoader();
+            return new StressHarness.Trial() {
+                @Override
+                public String actor(int id) throws Exception {
+                    if (id % 2 == 1) {
+                        RSAPublicKey restored = (RSAPublicKey) loader.invokeStatic(RSA_CLIENT_UTIL, "restorePublicKey",
+                                new Class<?>[]{String.class, String.class}, modulus, exponent);
+                        return restored != null && restored.getModulus().equals(new BigInteger(modulus))
+                                ? "restored" : "stale key";
+                    }
+                    String probe = "probe-" + id;
+                    byte[] encrypted = (byte[]) loader.invokeStatic(RSA_CLIENT_UTIL, "encryptData",
+                            new Class<?>[]{String.class}, probe);
+                    byte[] decrypted = (byte[]) loader.invokeStatic(RSA_UTIL, "decryptData",
+                            new Class<?>[]{byte[].class}, (Object) encrypted);
+                    return decrypted != null && probe.equals(new String(decrypted, StandardCharsets.UTF_8))
+                            ? "decrypted" : "wrong key";
+                }
+
+                @Override
+                public String arbiter(String[] results) {
+                    return String.join(",", new HashSet<>(Arrays.asList(results)));
+                }
+            };
+        }, "decrypted,restored", "restored,decrypted");
+    }
+
+    /**
+     * 同一 uid 并发申请缓存 Token：只签名一次，所有线程拿到同一个 Token
+     */
+    @Test
+    void tokenCacheSingleFlight() throws Exception {
+        new StressHarness("TokenCache single flight", ACTORS, 1000).run(() -> {
+            AtomicInteger signatures = new AtomicInteger();
+            TokenCache cache = new TokenCache((uid, exp) -> uid + "-" + signatures.incrementAndGet(), () -> "kid");
+            return new StressHarness.Trial() {
+                @Override
+                public String actor(int id) {
+                    return cache.get("svc", 60);
+                }
+
+                @Override
+                public String arbiter(String[] results) {
+                    return signatures.get() + " signatures, " + new HashSet<>(Arrays.asList(results)).size() + " tokens";
+                }
+            };
+        }, "1 signatures, 1 tokens");
+    }
+
+    private static void applyProfile(ChildFirstClassLoader loader, int keySize) throws Exception {
+        Class<?> profileClass = loader.loadClass(CRYPTO_PROFILE);
+        Object profile = profileClass.getConstructor(String.class, int.class, String.class, SignatureAlgorithm.class, int.class)
+                .newInstance("RSA", keySize, "SHA256WithRSA", SignatureAlgorithm.RS256, 1800);
+        loader.invokeStatic(JWT_MANAGER, "applyProfile", new Class<?>[]{profileClass}, profile);
+    }
+
+    private static boolean verified(Object manager, String token) throws Exception {
+        Object result = manager.getClass().getMethod("checkToken", String.class).invoke(manager, token);
+        return (Boolean) call(result, "isStatus");
+    }
+
+    private static Object call(Object target, String method) throws Exception {
+        Method m = target.getClass().getMethod(method);
+        return m.invoke(target);
+    }
+}
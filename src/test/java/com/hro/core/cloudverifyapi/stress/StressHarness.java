@@ -0,0 +1,118 @@
+package com.hro.core.cloudverifyapi.stress;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * jcstress 风格的并发试验驱动
+ *
+ * 每次试验新建一组状态，多个 actor 线程在栅栏处对齐后同时执行，各自返回一个结果字符串，
+ * 再由 arbiter 汇总为本次试验的结果(outcome)。统计全部试验的结果分布，出现非预期结果即失败。
+ * 试验次数由系统属性 stress.trials 控制。
+ */
+class StressHarness {
+
+    private static Logger logger = LoggerFactory.getLogger(StressHarness.class);
+
+    /**
+     * 单次试验
+     */
+    interface Trial {
+
+        /**
+         * 执行 actor 逻辑，抛出异常时结果记为 EXCEPTION:异常类名
+         */
+        String actor(int id) throws Exception;
+
+        /**
+         * 所有 actor 结束后汇总结果
+         */
+        String arbiter(String[] results) throws Exception;
+    }
+
+    interface TrialFactory {
+        Trial newTrial() throws Exception;
+    }
+
+    private final String name;
+    private final int actors;
+    private final int trials;
+
+    StressHarness(String name, int actors, int defaultTrials) {
+        this.name = name;
+        this.actors = actors;
+        this.trials = Integer.getInteger("stress.trials", defaultTrials);
+    }
+
+    /**
+     * @param factory
+     * @param acceptable 允许出现的结果
+     * @return 结果分布
+     */
+    Map<String, Long> run(TrialFactory factory, String... acceptable) throws Exception {
+        Map<String, Long> outcomes = new TreeMap<>();
+        ExecutorService pool = Executors.newFixedThreadPool(actors);
+        long start = System.nanoTime();
+        try {
+            for (int t = 0; t < trials; t++) {
+                Trial trial = factory.newTrial();
+                CyclicBarrier barrier = new CyclicBarrier(actors);
+                Future<?>[] futures = new Future<?>[actors];
+                String[] results = new String[actors];
+                for (int i = 0; i < actors; i++) {
+                    int id = i;
+                    futures[i] = pool.submit(() -> {
+                        barrier.await();
+                        try {
+                            results[id] = trial.actor(id);
+                        } catch (Exception e) {
+                            results[id] = "EXCEPTION:" + rootCause(e).getClass().getSimpleName();
+                        }
+                        return null;
+                    });
+                }
+                for (Future<?> future : futures) {
+                    future.get(60, TimeUnit.SECONDS);
+                }
+                outcomes.merge(trial.arbiter(results), 1L, Long::sum);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        Set<String> expected = new HashSet<>(Arrays.asList(acceptable));
+        StringBuilder table = new StringBuilder();
+        boolean forbidden = false;
+        for (Map.Entry<String, Long> entry : outcomes.entrySet()) {
+            boolean ok = expected.contains(entry.getKey());
+            forbidden |= !ok;
+            table.append(String.format("%n  %-12s %8d  %s", ok ? "ACCEPTABLE" : "FORBIDDEN", entry.getValue(), entry.getKey()));
+        }
+        logger.info("{}: {} trials x {} actors in {} ms{}", name, trials, actors,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), table);
+        if (forbidden) {
+            fail(name + " observed forbidden outcomes: " + outcomes);
+        }
+        return outcomes;
+    }
+
+    private static Throwable rootCause(Throwable e) {
+        while (e instanceof InvocationTargetException && e.getCause() != null) {
+            e = e.getCause();
+        }
+        return e;
+    }
+}
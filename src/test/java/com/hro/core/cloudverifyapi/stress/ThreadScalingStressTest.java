@@ -0,0 +1,211 @@
+package com.hro.core.cloudverifyapi.stress;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.hro.core.cloudverifyapi.jwt.JwtManager;
+import com.hro.core.cloudverifyapi.utils.RsaClientUtil;
+import com.hro.core.cloudverifyapi.utils.RsaUtil;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadInfo;
+import java.lang.management.ThreadMXBean;
+import java.security.PublicKey;
+import java.security.interfaces.RSAPrivateKey;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 热点路径线程扩展性测试，默认不执行：mvn -Pstress test -Dtest=ThreadScalingStressTest
+ *
+ * 每条路径依次在 1..N 个线程上运行固定时长，统计吞吐量与竞争情况：
+ * ThreadMXBean 的 blocked(进入 synchronized 被阻塞)、waited(wait/park)次数与阻塞时间，
+ * 以及 JFR 的 jdk.JavaMonitorEnter、jdk.ThreadPark 事件数(JDK 支持 JFR 时，录制文件写入 target/stress/)。
+ * 线程数增加后吞吐量跌破此前最好结果的 stress.cliff-ratio 倍视为扩展性断崖，测试失败。
+ *
+ * 参数(系统属性)：
+ * stress.threads       线程数列表，默认 1,2,4,8
+ * stress.duration      每档秒数，默认 3
+ * stress.warmup        每档预热秒数，默认 1
+ * stress.cliff-ratio   默认 0.5
+ * stress.label         结果文件名前缀，默认时间戳
+ */
+@Tag("stress")
+class ThreadScalingStressTest {
+
+    private static Logger logger = LoggerFactory.getLogger(ThreadScalingStressTest.class);
+
+    interface HotPath {
+        void run(int iteration) throws Exception;
+    }
+
+    @Test
+    void hotPaths() throws Exception {
+        String threads = System.getProperty("stress.threads", "1,2,4,8");
+        long duration = Long.getLong("stress.duration", 3);
+        long warmup = Long.getLong("stress.warmup", 1);
+        double cliffRatio = Double.parseDouble(System.getProperty("stress.cliff-ratio", "0.5"));
+        String label = System.getProperty("stress.label", "scaling-" + System.currentTimeMillis());
+        File dir = new File("target/stress");
+
+        String token = JwtManager.getToken("scaling", 3600);
+        JwtManager manager = JwtManager.getInstance();
+        Map<String, Object> keyMap = RsaUtil.initKey();
+        RSAPrivateKey priKey = (RSAPrivateKey) keyMap.get(RsaUtil.PRIVATE_KEY);
+        PublicKey pubKey = (PublicKey) keyMap.get(RsaUtil.PUBLIC_KEY);
+        String sign = RsaUtil.signByPriKey("scaling", priKey);
+
+        Map<String, HotPath> paths = new LinkedHashMap<>();
+        paths.put("jwtCheckToken", i -> check(manager.checkToken(token).isStatus()));
+        paths.put("jwtGetToken", i -> check(JwtManager.getToken("u" + (i & 63), 60) != null));
+        // 4096 个 uid、2 秒有效期：每档压测中都会经历未命中、后台刷新与同步重新签名，而不只是命中
+        paths.put("jwtGetCachedToken", i -> check(JwtManager.getCachedToken("svc" + (i & 4095), 2) != null));
+        paths.put("rsaVerifySign", i -> check(RsaUtil.verifySignByPubKey("scaling", sign, pubKey)));
+        paths.put("rsaClientEncrypt", i -> check(RsaClientUtil.encryptData("scaling") != null));
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("label", label);
+        report.put("availableProcessors", Runtime.getRuntime().availableProcessors());
+        report.put("javaVersion", System.getProperty("java.version"));
+        Map<String, Object> results = new LinkedHashMap<>();
+        report.put("paths", results);
+        List<String> cliffs = new ArrayList<>();
+
+        JwtManager.applyTokenCache(true, 10000, 0.5, 0.2);
+        try {
+            for (Map.Entry<String, HotPath> path : paths.entrySet()) {
+                List<Map<String, Object>> rows = new ArrayList<>();
+                double best = 0;
+                for (String n : threads.split(",")) {
+                    int threadCount = Integer.parseInt(n.trim());
+                    measure(path.getValue(), threadCount, TimeUnit.SECONDS.toNanos(warmup), null, null);
+                    Map<String, Object> row = measure(path.getValue(), threadCount, TimeUnit.SECONDS.toNanos(duration),
+                            dir, label + "-" + path.getKey() + "-" + threadCount);
+                    double opsPerSecond = (double) row.get("opsPerSecond");
+                    if (best > 0 && opsPerSecond < best * cliffRatio) {
+                        cliffs.add(path.getKey() + "@" + threadCount + ": " + Math.round(opsPerSecond)
+                                + " ops/s < " + cliffRatio + " x " + Math.round(best));
+                    }
+                    best = Math.max(best, opsPerSecond);
+                    rows.add(row);
+                    logger.info("{} x {} threads: {}", path.getKey(), threadCount, row);
+                }
+                results.put(path.getKey(), rows);
+            }
+        } finally {
+            JwtManager.applyTokenCache(false, 10000, 0.5, 0.2);
+        }
+        dir.mkdirs();
+        File file = new File(dir, label + ".json");
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(file, report);
+        logger.info("thread scaling report: {}", file.getAbsolutePath());
+        assertTrue(cliffs.isEmpty(), "scalability cliffs: " + cliffs);
+    }
+
+    /**
+     * @param jfrDir 非 null 时录制 JFR
+     */
+    private static Map<String, Object> measure(HotPath path, int threadCount, long durationNanos,
+                                               File jfrDir, String name) throws Exception {
+        ThreadMXBean mx = ManagementFactory.getThreadMXBean();
+        if (mx.isThreadContentionMonitoringSupported()) {
+            mx.setThreadContentionMonitoringEnabled(true);
+        }
+        AtomicBoolean running = new AtomicBoolean(true);
+        AtomicLong ops = new AtomicLong();
+        AtomicLong errors = new AtomicLong();
+        CountDownLatch ready = new CountDownLatch(threadCount);
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(threadCount);
+        long[][] contention = new long[threadCount][];
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < threadCount; t++) {
+            int id = t;
+            Thread worker = new Thread(() -> {
+                ready.countDown();
+                long local = 0;
+                try {
+                    start.await();
+                    long[] before = contention(mx, Thread.currentThread().getId());
+                    while (running.get()) {
+                        try {
+                            path.run((int) local);
+                        } catch (Exception e) {
+                            errors.incrementAndGet();
+                        }
+                        local++;
+                    }
+                    long[] after = contention(mx, Thread.currentThread().getId());
+                    contention[id] = new long[]{after[0] - before[0], after[1] - before[1], after[2] - before[2]};
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    ops.addAndGet(local);
+                    done.countDown();
+                }
+            }, "scaling-" + t);
+            worker.setDaemon(true);
+            workers.add(worker);
+            worker.start();
+        }
+        ready.await();
+        JfrRecorder jfr = jfrDir == null ? null : JfrRecorder.start(JfrRecorder.MONITOR_ENTER, JfrRecorder.THREAD_PARK);
+        long begin = System.nanoTime();
+        start.countDown();
+        TimeUnit.NANOSECONDS.sleep(durationNanos);
+        running.set(false);
+        done.await();
+        long elapsed = System.nanoTime() - begin;
+
+        long blocked = 0;
+        long waited = 0;
+        long blockedMillis = 0;
+        for (long[] c : contention) {
+            if (c != null) {
+                blocked += c[0];
+                waited += c[1];
+                blockedMillis += c[2];
+            }
+        }
+        Map<String, Object> row = new LinkedHashMap<>();
+        row.put("threads", threadCount);
+        row.put("ops", ops.get());
+        row.put("opsPerSecond", Math.round(ops.get() * 1e9 / elapsed * 10) / 10.0);
+        row.put("errors", errors.get());
+        row.put("blockedCount", blocked);
+        row.put("blockedMillis", blockedMillis);
+        row.put("waitedCount", waited);
+        if (jfr != null) {
+            Map<String, Long> events = jfr.stop(new File(jfrDir, name + ".jfr"));
+            row.put("jfrMonitorEnter", events.getOrDefault(JfrRecorder.MONITOR_ENTER, 0L));
+            row.put("jfrThreadPark", events.getOrDefault(JfrRecorder.THREAD_PARK, 0L));
+        }
+        return row;
+    }
+
+    /**
+     * @return {blockedCount, waitedCount, blockedTime(ms，未开启竞争监控时为 -1)}
+     */
+    private static long[] contention(ThreadMXBean mx, long threadId) {
+        ThreadInfo info = mx.getThreadInfo(threadId);
+        return new long[]{info.getBlockedCount(), info.getWaitedCount(), info.getBlockedTime()};
+    }
+
+    private static void check(boolean ok) {
+        if (!ok) {
+            throw new IllegalStateException("unexpected result");
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.hro.core.cloudverifyapi.utils;
+
+import com.hro.core.cloudverifyapi.enums.ResultCodeEnum;
+import com.hro.core.cloudverifyapi.jwt.JwtManager;
+import com.hro.core.cloudverifyapi.jwt.JwtResult;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.server.LocalServerPort;
+
+import java.security.KeyPairGenerator;
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "eureka.client.enabled=false")
+class JwtClientVerifierTests {
+
+    @LocalServerPort
+    private int port;
+
+    @Test
+    void verifiesLocallyAndFallsBackForUnknownKid() throws Exception {
+        JwtManager.getInstance();
+        JwtClientVerifier verifier = new JwtClientVerifier("http://127.0.0.1:" + port, 60 * 1000L);
+
+        JwtResult ok = verifier.verify(JwtManager.getToken("10086", 60));
+        assertTrue(ok.isStatus());
+        assertEquals("10086", ok.getUid());
+
+        JwtResult expired = verifier.verify(JwtManager.getToken("10086", -60));
+        assertEquals(ResultCodeEnum.TOKEN_TIMEOUT.getCode(), expired.getCode());
+
+        // 未知 kid 的伪造 Token 走远程校验，结果同样是非法
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+        generator.initialize(1024);
+        String forged = Jwts.builder().setHeaderParam(JwtManager.KEY_ID, "unknown").setSubject("10086")
+                .setExpiration(new Date(System.currentTimeMillis() + 60 * 1000L))
+                .signWith(SignatureAlgorithm.RS512, generator.generateKeyPair().getPrivate()).compact();
+        JwtResult remote = verifier.verify(forged);
+        assertFalse(remote.isStatus());
+        assertEquals(ResultCodeEnum.TOKEN_UNVALIDATE.getCode(), remote.getCode());
+        assertEquals(JwtResult.MSG_UNVALIDATE, remote.getMsg());
+    }
+
+    @Test
+    void rejectsRefreshIntervalShorterThanBackoff() {
+        String baseUrl = "http://127.0.0.1:" + port;
+        assertThrows(IllegalArgumentException.class, () -> new JwtClientVerifier(baseUrl, 1000L));
+        assertThrows(IllegalArgumentException.class, () -> new JwtClientVerifier(baseUrl, 0L));
+
+        JwtClientVerifier verifier = new JwtClientVerifier(baseUrl, 10 * 1000L);
+        assertTrue(verifier.verify(JwtManager.getToken("10086", 60)).isStatus());
+    }
+}
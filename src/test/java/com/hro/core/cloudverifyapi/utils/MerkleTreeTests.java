@@ -0,0 +1,106 @@
+package com.hro.core.cloudverifyapi.utils;
+
+import com.hro.core.cloudverifyapi.jwt.CryptoProfile;
+import io.jsonwebtoken.SignatureAlgorithm;
+import org.junit.jupiter.api.Test;
+
+import java.security.interfaces.RSAPrivateKey;
+import java.security.interfaces.RSAPublicKey;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MerkleTreeTests {
+
+	@Test
+	void everyProofRebuildsRoot() {
+		// 覆盖奇数节点提升的各种形状
+		for (int size = 1; size <= 17; size++) {
+			List<String> records = records(size);
+			MerkleTree tree = MerkleTree.build(records);
+			for (int i = 0; i < size; i++) {
+				MerkleTree.Proof proof = MerkleTree.Proof.decode(tree.proof(i).encode());
+				assertArrayEquals(tree.root(), MerkleTree.rootOf(records.get(i), proof), "size " + size + ", index " + i);
+			}
+		}
+	}
+
+	@Test
+	void rejectsTamperedRecordOrProof() {
+		List<String> records = records(5);
+		MerkleTree tree = MerkleTree.build(records);
+		MerkleTree.Proof proof = tree.proof(2);
+		assertFalse(Arrays.equals(tree.root(), MerkleTree.rootOf("record-2x", proof)));
+		MerkleTree.Proof moved = new MerkleTree.Proof(3, 5, proof.getSiblings());
+		assertFalse(Arrays.equals(tree.root(), MerkleTree.rootOf(records.get(2), moved)));
+		// 兄弟节点数量与树形不符
+		assertNull(MerkleTree.rootOf(records.get(2), new MerkleTree.Proof(2, 5, proof.getSiblings().subList(0, 1))));
+	}
+
+	@Test
+	void batchSignVerifiesEachRecord() throws Exception {
+		Map<String, Object> keyMap = RsaUtil.initKey();
+		RSAPrivateKey priKey = (RSAPrivateKey) keyMap.get(RsaUtil.PRIVATE_KEY);
+		RSAPublicKey pubKey = (RSAPublicKey) keyMap.get(RsaUtil.PUBLIC_KEY);
+		List<String> records = records(10);
+
+		MerkleBatchSign batch = RsaUtil.signBatchByPriKey(records, priKey);
+		assertNotNull(batch);
+		assertEquals(records.size(), batch.getProofs().size());
+		for (int i = 0; i < records.size(); i++) {
+			assertTrue(RsaUtil.verifyBatchSignByPubKey(records.get(i), batch.getProof(i), batch.getRootSign(), pubKey));
+		}
+		assertFalse(RsaUtil.verifyBatchSignByPubKey("forged", batch.getProof(0), batch.getRootSign(), pubKey));
+		assertFalse(RsaUtil.verifyBatchSignByPubKey(records.get(0), batch.getProof(1), batch.getRootSign(), pubKey));
+		// 根签名不能当作普通签名使用
+		assertFalse(RsaUtil.verifySignByPubKey(records.get(0), batch.getRootSign(), pubKey));
+	}
+
+	@Test
+	void batchSignVerifiesAcrossSignatureAlgorithmChange() throws Exception {
+		CryptoProfile original = RsaUtil.getProfile();
+		Map<String, Object> keyMap = RsaUtil.initKey(512);
+		RSAPrivateKey priKey = (RSAPrivateKey) keyMap.get(RsaUtil.PRIVATE_KEY);
+		RSAPublicKey pubKey = (RSAPublicKey) keyMap.get(RsaUtil.PUBLIC_KEY);
+		List<String> records = records(3);
+		try {
+			RsaUtil.applyProfile(new CryptoProfile("RSA", 512, "SHA1WithRSA", SignatureAlgorithm.RS256, 60));
+			MerkleBatchSign batch = RsaUtil.signBatchByPriKey(records, priKey);
+
+			RsaUtil.applyProfile(new CryptoProfile("RSA", 512, "SHA256WithRSA", SignatureAlgorithm.RS256, 60));
+			assertFalse(RsaUtil.verifyBatchSignByPubKey(records.get(1), batch.getProof(1), batch.getRootSign(), pubKey));
+			assertTrue(RsaUtil.verifyBatchSignByPubKey(records.get(1), batch.getProof(1), batch.getRootSign(), pubKey,
+					"SHA1WithRSA"));
+		} finally {
+			RsaUtil.applyProfile(original);
+		}
+	}
+
+	@Test
+	void batchSignFailuresReturnNullOrFalse() throws Exception {
+		Map<String, Object> keyMap = RsaUtil.initKey(512);
+		RSAPrivateKey priKey = (RSAPrivateKey) keyMap.get(RsaUtil.PRIVATE_KEY);
+		RSAPublicKey pubKey = (RSAPublicKey) keyMap.get(RsaUtil.PUBLIC_KEY);
+		assertNull(RsaUtil.signBatchByPriKey(Arrays.asList("a", null), priKey));
+		assertNull(RsaUtil.signBatchByPriKey(new ArrayList<>(), priKey));
+
+		MerkleBatchSign batch = RsaUtil.signBatchByPriKey(records(2), priKey);
+		assertFalse(RsaUtil.verifyBatchSignByPubKey("record-0", "not-a-proof", batch.getRootSign(), pubKey));
+	}
+
+	private static List<String> records(int size) {
+		List<String> records = new ArrayList<>(size);
+		for (int i = 0; i < size; i++) {
+			records.add("record-" + i);
+		}
+		return records;
+	}
+}
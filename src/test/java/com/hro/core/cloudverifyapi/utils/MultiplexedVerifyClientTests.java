@@ -0,0 +1,88 @@
+package com.hro.core.cloudverifyapi.utils;
+
+import com.hro.core.cloudverifyapi.config.H2cConfig;
+import com.hro.core.cloudverifyapi.enums.ResultCodeEnum;
+import com.hro.core.cloudverifyapi.jwt.JwtManager;
+import com.hro.core.cloudverifyapi.jwt.JwtResult;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.server.LocalServerPort;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {"eureka.client.enabled=false", "verify.http2.h2c-enabled=true"})
+class MultiplexedVerifyClientTests {
+
+    @LocalServerPort
+    private int port;
+
+    @Test
+    void verifiesOverH2c() throws Exception {
+        String token = JwtManager.getToken("10086", 60);
+        String expired = JwtManager.getToken("10086", -60);
+        try (MultiplexedVerifyClient client = new MultiplexedVerifyClient("http://127.0.0.1:" + port)) {
+            JwtResult ok = client.verify(token);
+            assertTrue(ok.isStatus());
+            assertEquals("10086", ok.getUid());
+
+            List<JwtResult> batch = client.verifyBinary(Arrays.asList(token, expired));
+            assertEquals(ResultCodeEnum.SUCCESS.getCode(), batch.get(0).getCode());
+            assertEquals(ResultCodeEnum.TOKEN_TIMEOUT.getCode(), batch.get(1).getCode());
+            assertTrue(client.isH2c());
+            assertEquals(1, client.connectionCount());
+        }
+    }
+
+    /**
+     * 默认的 Tomcat 9.0.30 在并发 stream 下偶发丢参，只在 mvn -Ph2c test 下执行
+     */
+    @Test
+    void concurrentVerifiesShareOneH2cConnection() throws Exception {
+        assumeTrue(H2cConfig.tomcatSupportsConcurrentStreams(), "tomcat too old for concurrent h2c streams");
+        String token = JwtManager.getToken("10086", 60);
+        String expired = JwtManager.getToken("10086", -60);
+        try (MultiplexedVerifyClient client = new MultiplexedVerifyClient("http://127.0.0.1:" + port)) {
+            List<CompletableFuture<JwtResult>> futures = new ArrayList<>();
+            for (int i = 0; i < 50; i++) {
+                futures.add(client.verifyAsync(i % 2 == 0 ? token : expired));
+            }
+            for (int i = 0; i < futures.size(); i++) {
+                JwtResult result = futures.get(i).get(10, TimeUnit.SECONDS);
+                assertEquals(i % 2 == 0 ? ResultCodeEnum.SUCCESS.getCode() : ResultCodeEnum.TOKEN_TIMEOUT.getCode(),
+                        result.getCode());
+            }
+            assertEquals(1, client.connectionCount());
+        }
+    }
+
+    @Test
+    void rejectsBatchOverMaxSize() throws Exception {
+        List<String> tokens = new ArrayList<>();
+        for (int i = 0; i <= 1000; i++) {
+            tokens.add("t" + i);
+        }
+        try (MultiplexedVerifyClient client = new MultiplexedVerifyClient("http://127.0.0.1:" + port)) {
+            IOException e = assertThrows(IOException.class, () -> client.verifyBinary(tokens));
+            assertTrue(e.getMessage().contains("413"));
+        }
+    }
+
+    @Test
+    void http11KeepAliveFallback() {
+        try (MultiplexedVerifyClient client = new MultiplexedVerifyClient("http://127.0.0.1:" + port,
+                false, 8, 1000, 3000)) {
+            assertTrue(client.verify(JwtManager.getToken("10086", 60)).isStatus());
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.hro.core.cloudverifyapi.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.security.PublicKey;
+import java.security.interfaces.RSAPrivateKey;
+import java.security.interfaces.RSAPublicKey;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class RsaClientUtilTests {
+
+    @Test
+    void restorePublicKeyLeavesDefaultKeyUntouched() throws Exception {
+        int defaultLength = RsaClientUtil.encryptData("data").length;
+        Map<String, Object> keyMap = RsaUtil.initKey(512);
+        RSAPublicKey pubKey = (RSAPublicKey) keyMap.get(RsaUtil.PUBLIC_KEY);
+        RSAPrivateKey priKey = (RSAPrivateKey) keyMap.get(RsaUtil.PRIVATE_KEY);
+
+        PublicKey restored = RsaClientUtil.restorePublicKey(pubKey.getModulus().toString(),
+                pubKey.getPublicExponent().toString());
+        byte[] encrypted = RsaClientUtil.encryptData("data".getBytes(StandardCharsets.UTF_8), restored);
+        assertArrayEquals("data".getBytes(StandardCharsets.UTF_8), RsaUtil.decryptData(encrypted, priKey));
+
+        // 以前 restorePublicKey 会替换默认公钥，之后的 encryptData(String) 改用 512 位密钥
+        assertNotEquals(encrypted.length, defaultLength);
+        assertEquals(defaultLength, RsaClientUtil.encryptData("data").length);
+    }
+
+    @Test
+    void restorePublicKeyReturnsNullOnMalformedInput() {
+        // 以前返回上一次还原的公钥
+        assertNull(RsaClientUtil.restorePublicKey("not-a-number", "65537"));
+    }
+}
@@ -0,0 +1,49 @@
+package com.hro.core.cloudverifyapi.utils;
+
+import com.hro.core.cloudverifyapi.enums.ResultCodeEnum;
+import com.hro.core.cloudverifyapi.jwt.JwtResult;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class VerifyBinaryCodecTests {
+
+    @Test
+    void requestRoundTrip() {
+        List<String> tokens = Arrays.asList("a.b.c", "", "令牌");
+        assertEquals(tokens, VerifyBinaryCodec.decodeRequest(VerifyBinaryCodec.encodeRequest(tokens)));
+    }
+
+    @Test
+    void resultRoundTrip() throws Exception {
+        List<JwtResult> results = Arrays.asList(
+                new JwtResult(true, "10086", JwtResult.MSG_SUCCESS, ResultCodeEnum.SUCCESS.getCode()),
+                new JwtResult(false, null, JwtResult.MSG_TIMEOUT, ResultCodeEnum.TOKEN_TIMEOUT.getCode()),
+                new JwtResult(false, null, JwtResult.MSG_UNVALIDATE, ResultCodeEnum.TOKEN_UNVALIDATE.getCode()),
+                new JwtResult(false, "", ResultCodeEnum.UNKNOW.getDesc(), ResultCodeEnum.UNKNOW.getCode()));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        VerifyBinaryCodec.encodeResults(results, out);
+
+        List<JwtResult> decoded = VerifyBinaryCodec.decodeResults(out.toByteArray());
+        assertEquals(results.size(), decoded.size());
+        for (int i = 0; i < results.size(); i++) {
+            assertEquals(results.get(i).isStatus(), decoded.get(i).isStatus());
+            assertEquals(results.get(i).getUid(), decoded.get(i).getUid());
+            assertEquals(results.get(i).getMsg(), decoded.get(i).getMsg());
+            assertEquals(results.get(i).getCode(), decoded.get(i).getCode());
+        }
+    }
+
+    @Test
+    void rejectsTruncatedBody() {
+        byte[] body = VerifyBinaryCodec.encodeRequest(Arrays.asList("a.b.c"));
+        assertThrows(IllegalArgumentException.class,
+                () -> VerifyBinaryCodec.decodeRequest(Arrays.copyOf(body, body.length - 1)));
+        assertThrows(IllegalArgumentException.class, () -> VerifyBinaryCodec.decodeRequest(new byte[0]));
+    }
+}